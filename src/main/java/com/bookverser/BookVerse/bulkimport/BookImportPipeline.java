@@ -0,0 +1,336 @@
+package com.bookverser.BookVerse.bulkimport;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bookverser.BookVerse.dto.BulkImportBookRequestDTO;
+import com.bookverser.BookVerse.dto.BulkImportResultDto;
+import com.bookverser.BookVerse.entity.Book;
+import com.bookverser.BookVerse.entity.Category;
+import com.bookverser.BookVerse.entity.User;
+import com.bookverser.BookVerse.exception.InvalidRequestException;
+import com.bookverser.BookVerse.images.BookImages;
+import com.bookverser.BookVerse.repository.BookRepository;
+import com.bookverser.BookVerse.repository.CategoryRepository;
+import com.bookverser.BookVerse.repository.UserRepository;
+import com.bookverser.BookVerse.search.BookSearchIndex;
+import com.bookverser.BookVerse.serviceimpl.BookIdGenerator;
+import com.bookverser.BookVerse.serviceimpl.SellerLocations;
+import com.bookverser.BookVerse.storefront.StorefrontSnapshot;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Streaming bulk import of books.
+ *
+ * Rows are pulled from a {@link BookImportReader} and written in chunks of
+ * {@code bookverse.import.batch-size}; each chunk is its own transaction, is sent as
+ * JDBC batches and is flushed/cleared afterwards so memory stays flat regardless of
+ * file size. Lookups are set based: category ids are preloaded once, seller ids and
+ * ISBNs are resolved with one IN query per chunk. Bad rows are reported individually
+ * and never abort the rest of the file.
+ */
+@Component
+public class BookImportPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImportPipeline.class);
+    private static final Comparator<BulkImportResultDto.RowError> BY_ROW =
+            Comparator.comparingLong(BulkImportResultDto.RowError::getRow);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final BookRepository bookRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookIdGenerator bookIdGenerator;
+    private final SellerLocations sellerLocations;
+    private final StorefrontSnapshot storefrontSnapshot;
+    private final BookImages bookImages;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public BookImportPipeline(BookRepository bookRepository,
+                              CategoryRepository categoryRepository,
+                              UserRepository userRepository,
+                              BookSearchIndex bookSearchIndex,
+                              BookIdGenerator bookIdGenerator,
+                              SellerLocations sellerLocations,
+                              StorefrontSnapshot storefrontSnapshot,
+                              BookImages bookImages,
+                              Validator validator,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${bookverse.import.batch-size:500}") int chunkSize,
+                              @Value("${bookverse.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.bookRepository = bookRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookIdGenerator = bookIdGenerator;
+        this.sellerLocations = sellerLocations;
+        this.storefrontSnapshot = storefrontSnapshot;
+        this.bookImages = bookImages;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /** Reads the whole input and imports every valid row. */
+    public BulkImportResultDto importBooks(BookImportReader reader) {
+        return importBooks(reader, 0, ImportProgressListener.NONE);
+    }
+
+    /**
+     * Imports the input, skipping the first {@code skipRows} data rows (already committed
+     * by an earlier, interrupted run).
+     */
+    public BulkImportResultDto importBooks(BookImportReader reader, long skipRows, ImportProgressListener listener) {
+        long start = System.nanoTime();
+        Run run = new Run(categoryRepository.findAllIds());
+
+        List<BookImportReader.Row> chunk = new ArrayList<>(chunkSize);
+        while (true) {
+            BookImportReader.Row row;
+            try {
+                row = reader.next();
+            } catch (IOException | RuntimeException e) {
+                // Malformed input: everything up to here is kept, the rest of the file is unreadable
+                chunk.add(new BookImportReader.Row(reader.rowsRead() + 1, new BulkImportBookRequestDTO(),
+                        "Malformed input, import stopped: " + e.getMessage()));
+                break;
+            }
+            if (row == null) {
+                break;
+            }
+            if (row.rowNumber() <= skipRows) {
+                // keep in-file duplicate detection consistent with an uninterrupted run
+                if (row.error() == null && row.book().getIsbn() != null) {
+                    run.seenIsbns.add(row.book().getIsbn());
+                }
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, run, listener);
+                chunk.clear();
+                if (listener.stopRequested()) {
+                    run.interrupted = true;
+                    break;
+                }
+            }
+        }
+        if (!chunk.isEmpty() && !run.interrupted) {
+            writeChunk(chunk, run, listener);
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        BulkImportResultDto result = run.toResult(durationMillis);
+        logger.info("Bulk import {}: {} rows, {} imported, {} failed in {} ms ({} rows/s)",
+                run.interrupted ? "interrupted" : "finished",
+                result.getTotalRows(), result.getImportedRows(), result.getFailedRows(),
+                durationMillis, String.format("%.1f", result.getRowsPerSecond()));
+        return result;
+    }
+
+    private void writeChunk(List<BookImportReader.Row> rows, Run run, ImportProgressListener listener) {
+        long lastRow = rows.get(rows.size() - 1).rowNumber();
+        List<BulkImportResultDto.RowError> invalid = new ArrayList<>();
+        List<BookImportReader.Row> candidates = new ArrayList<>(rows.size());
+        for (BookImportReader.Row row : rows) {
+            String error = row.error() != null ? row.error() : validate(row.book());
+            if (error != null) {
+                invalid.add(new BulkImportResultDto.RowError(row.rowNumber(), row.book().getIsbn(), error));
+            } else if (!run.seenIsbns.add(row.book().getIsbn())) {
+                invalid.add(new BulkImportResultDto.RowError(row.rowNumber(), row.book().getIsbn(),
+                        "Duplicate ISBN in file"));
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        ChunkOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> {
+                ChunkOutcome written = candidates.isEmpty()
+                        ? new ChunkOutcome(0, new ArrayList<>())
+                        : persistChunk(candidates, run);
+                written.rejected().addAll(invalid);
+                written.rejected().sort(BY_ROW);
+                listener.onChunk(lastRow, rows.size(), written.written(), written.rejected());
+                return written;
+            });
+        } catch (TransactionException e) {
+            throw e;   // no transaction at all (database unavailable): let the caller fail the run
+        } catch (RuntimeException e) {
+            // e.g. an ISBN inserted concurrently by another request; the chunk is lost, the run goes on
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            logger.warn("Bulk import chunk rolled back: {}", cause);
+            List<BulkImportResultDto.RowError> rejected = new ArrayList<>(invalid);
+            for (BookImportReader.Row row : candidates) {
+                rejected.add(new BulkImportResultDto.RowError(row.rowNumber(), row.book().getIsbn(),
+                        "Chunk rolled back: " + cause));
+            }
+            rejected.sort(BY_ROW);
+            // progress is still recorded so a resumed run does not retry the lost chunk
+            transactionTemplate.executeWithoutResult(status ->
+                    listener.onChunk(lastRow, rows.size(), 0, rejected));
+            outcome = new ChunkOutcome(0, rejected);
+        }
+
+        run.totalRows += rows.size();
+        run.imported += outcome.written();
+        outcome.rejected().forEach(e -> run.reject(e.getRow(), e.getIsbn(), e.getMessage()));
+    }
+
+    private record ChunkOutcome(int written, List<BulkImportResultDto.RowError> rejected) {
+    }
+
+    private ChunkOutcome persistChunk(List<BookImportReader.Row> candidates, Run run) {
+        Set<String> existingIsbns = bookRepository.findExistingIsbns(
+                candidates.stream().map(r -> r.book().getIsbn()).collect(Collectors.toSet()));
+        resolveSellers(candidates, run);
+
+        List<Book> books = new ArrayList<>(candidates.size());
+        List<BulkImportResultDto.RowError> rejected = new ArrayList<>();
+        for (BookImportReader.Row row : candidates) {
+            BulkImportBookRequestDTO dto = row.book();
+            String error = existingIsbns.contains(dto.getIsbn()) ? "ISBN already exists"
+                    : !run.categoryIds.contains(dto.getCategoryId()) ? "Category not found: " + dto.getCategoryId()
+                    : !run.sellers.get(dto.getSellerId()) ? "Seller not found: " + dto.getSellerId()
+                    : null;
+            if (error != null) {
+                rejected.add(new BulkImportResultDto.RowError(row.rowNumber(), dto.getIsbn(), error));
+            } else {
+                Book book = toBook(dto);
+                try {
+                    // Same as a single add: a blob URL must exist and is referenced by the new book
+                    bookImages.setImageUrl(book, dto.getImageUrl());
+                } catch (InvalidRequestException e) {
+                    rejected.add(new BulkImportResultDto.RowError(row.rowNumber(), dto.getIsbn(), e.getMessage()));
+                    continue;
+                }
+                book.setSellerCity(run.sellerCities.get(dto.getSellerId()));
+                // persist, not save(): ids are assigned, so save() would merge and SELECT each row first
+                entityManager.persist(book);
+                books.add(book);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        books.forEach(bookSearchIndex::index);
+        if (!books.isEmpty()) {
+            storefrontSnapshot.booksAdded();
+        }
+        return new ChunkOutcome(books.size(), rejected);
+    }
+
+    private void resolveSellers(List<BookImportReader.Row> candidates, Run run) {
+        Set<Long> unknown = candidates.stream()
+                .map(r -> r.book().getSellerId())
+                .filter(id -> !run.sellers.containsKey(id))
+                .collect(Collectors.toSet());
+        if (unknown.isEmpty()) {
+            return;
+        }
+        Set<Long> found = userRepository.findExistingIds(unknown);
+        unknown.forEach(id -> run.sellers.put(id, found.contains(id)));
+        run.sellerCities.putAll(sellerLocations.primaryCities(found));
+    }
+
+    private Book toBook(BulkImportBookRequestDTO dto) {
+        Book book = new Book();
+        book.setId(bookIdGenerator.nextId());
+        book.setIsbn(dto.getIsbn());
+        book.setTitle(dto.getTitle());
+        book.setAuthor(dto.getAuthor());
+        book.setPrice(dto.getPrice());
+        book.setDescription(dto.getDescription());
+        book.setCategory(entityManager.getReference(Category.class, dto.getCategoryId()));
+        book.setSeller(entityManager.getReference(User.class, dto.getSellerId()));
+        book.setStock(dto.getStock());
+        book.setCondition(dto.getCondition());
+        book.setStatus("AVAILABLE");
+        book.setFeatured(false);
+        book.setActive(true);
+        return book;
+    }
+
+    private String validate(BulkImportBookRequestDTO dto) {
+        Set<ConstraintViolation<BulkImportBookRequestDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            // The entity is stricter than the DTO (title/author/isbn lengths)
+            Book probe = new Book();
+            probe.setIsbn(dto.getIsbn());
+            probe.setTitle(dto.getTitle());
+            probe.setAuthor(dto.getAuthor());
+            probe.setPrice(dto.getPrice());
+            probe.setDescription(dto.getDescription());
+            probe.setCondition(dto.getCondition());
+            Set<ConstraintViolation<Book>> entityViolations = validator.validate(probe);
+            if (entityViolations.isEmpty()) {
+                return null;
+            }
+            return entityViolations.stream()
+                    .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /** Mutable state of a single import run. */
+    private final class Run {
+        final Set<Long> categoryIds;
+        final Map<Long, Boolean> sellers = new HashMap<>();
+        final Map<Long, String> sellerCities = new HashMap<>();
+        final Set<String> seenIsbns = new HashSet<>();
+        final List<BulkImportResultDto.RowError> errors = new ArrayList<>();
+        long totalRows;
+        long imported;
+        long failed;
+        boolean interrupted;
+
+        Run(Set<Long> categoryIds) {
+            this.categoryIds = categoryIds;
+        }
+
+        void reject(long row, String isbn, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new BulkImportResultDto.RowError(row, isbn, message));
+            }
+        }
+
+        BulkImportResultDto toResult(long durationMillis) {
+            double rowsPerSecond = durationMillis == 0 ? totalRows : totalRows * 1000.0 / durationMillis;
+            return new BulkImportResultDto(totalRows, imported, failed, durationMillis, rowsPerSecond,
+                    interrupted, errors);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.bookverser.BookVerse.bulkimport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import com.bookverser.BookVerse.dto.BulkImportBookRequestDTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Streams import rows out of a CSV or JSON file one at a time, so the file is
+ * never materialised in memory.
+ *
+ * CSV: header line followed by the positional columns
+ * isbn,title,author,price,description,imageUrl,categoryId,sellerId,stock,condition
+ * (quoted fields may contain commas).
+ * JSON: a top-level array of objects using the same field names.
+ */
+public class BookImportReader implements Closeable {
+
+    static final String[] CSV_COLUMNS = {
+            "isbn", "title", "author", "price", "description",
+            "imageUrl", "categoryId", "sellerId", "stock", "condition"
+    };
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /** One parsed input row; {@code error} is set when the row could not be converted. */
+    public record Row(long rowNumber, BulkImportBookRequestDTO book, String error) {
+    }
+
+    private final MappingIterator<Map<String, Object>> rows;
+    private long rowNumber;
+
+    private BookImportReader(MappingIterator<Map<String, Object>> rows) {
+        this.rows = rows;
+    }
+
+    public static boolean isSupported(String filename) {
+        return filename != null && (filename.endsWith(".csv") || filename.endsWith(".json"));
+    }
+
+    public static BookImportReader open(InputStream in, String filename) throws IOException {
+        if (!isSupported(filename)) {
+            throw new IllegalArgumentException("Invalid file format. Only CSV and JSON are supported.");
+        }
+        return filename.endsWith(".csv") ? openCsv(in) : openJson(in);
+    }
+
+    private static BookImportReader openCsv(InputStream in) throws IOException {
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : CSV_COLUMNS) {
+            schema.addColumn(column);
+        }
+        MappingIterator<Map<String, Object>> it = CSV_MAPPER
+                .readerFor(Map.class)
+                .with(schema.build().withSkipFirstDataRow(true))
+                .with(CsvParser.Feature.TRIM_SPACES)
+                .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .with(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+                .readValues(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return new BookImportReader(it);
+    }
+
+    private static BookImportReader openJson(InputStream in) throws IOException {
+        JsonParser parser = JSON_MAPPER.getFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalArgumentException("Invalid JSON format, expected an array of books");
+        }
+        parser.nextToken(); // step into the array so elements are read one by one
+        MappingIterator<Map<String, Object>> it = JSON_MAPPER.readerFor(Map.class).readValues(parser);
+        return new BookImportReader(it);
+    }
+
+    /**
+     * Returns the next row, or null at end of input.
+     * @throws IOException if the input itself is malformed (unterminated quote, broken JSON).
+     */
+    public Row next() throws IOException {
+        if (!rows.hasNextValue()) {
+            return null;
+        }
+        Map<String, Object> values = rows.nextValue();
+        rowNumber++;
+        try {
+            return new Row(rowNumber, toDto(values), null);
+        } catch (NumberFormatException e) {
+            return new Row(rowNumber, partialDto(values), "Invalid number: " + e.getMessage());
+        }
+    }
+
+    /** Number of rows read so far (header excluded). */
+    public long rowsRead() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        rows.close();
+    }
+
+    private static BulkImportBookRequestDTO toDto(Map<String, Object> values) {
+        BulkImportBookRequestDTO dto = partialDto(values);
+        String price = text(values, "price");
+        String categoryId = text(values, "categoryId");
+        String sellerId = text(values, "sellerId");
+        String stock = text(values, "stock");
+        dto.setPrice(price == null ? null : new BigDecimal(price));
+        dto.setCategoryId(categoryId == null ? null : Long.valueOf(categoryId));
+        dto.setSellerId(sellerId == null ? null : Long.valueOf(sellerId));
+        dto.setStock(stock == null ? null : Integer.valueOf(stock));
+        return dto;
+    }
+
+    private static BulkImportBookRequestDTO partialDto(Map<String, Object> values) {
+        BulkImportBookRequestDTO dto = new BulkImportBookRequestDTO();
+        dto.setIsbn(text(values, "isbn"));
+        dto.setTitle(text(values, "title"));
+        dto.setAuthor(text(values, "author"));
+        dto.setDescription(text(values, "description"));
+        dto.setImageUrl(text(values, "imageUrl"));
+        dto.setCondition(text(values, "condition"));
+        return dto;
+    }
+
+    private static String text(Map<String, Object> values, String key) {
+        Object value = values.get(key);
+        if (value == null) {
+            return null;
+        }
+        String s = value.toString().trim();
+        return s.isEmpty() ? null : s;
+    }
+}
@@ -0,0 +1,280 @@
+package com.bookverser.BookVerse.bulkimport;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.bookverser.BookVerse.dto.BulkImportJobDto;
+import com.bookverser.BookVerse.dto.BulkImportResultDto;
+import com.bookverser.BookVerse.entity.BulkImportJob;
+import com.bookverser.BookVerse.entity.BulkImportJobError;
+import com.bookverser.BookVerse.exception.InvalidRequestException;
+import com.bookverser.BookVerse.exception.ResourceNotFoundException;
+import com.bookverser.BookVerse.repository.BulkImportJobErrorRepository;
+import com.bookverser.BookVerse.repository.BulkImportJobRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs bulk imports as background jobs.
+ *
+ * The upload is spooled to {@code bookverse.import.spool-dir} and processed on virtual
+ * threads, at most {@code bookverse.import.max-concurrent-jobs} at a time. Progress is
+ * committed with every chunk, so a job stopped by a shutdown or crash resumes after its
+ * last committed chunk (automatically on startup, or via {@link #resume(String)}).
+ */
+@Service
+public class BulkImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportJobService.class);
+
+    private static final Set<BulkImportJob.Status> RESUMABLE =
+            EnumSet.of(BulkImportJob.Status.FAILED, BulkImportJob.Status.INTERRUPTED);
+    private static final Set<BulkImportJob.Status> PENDING_ON_STARTUP =
+            EnumSet.of(BulkImportJob.Status.QUEUED, BulkImportJob.Status.RUNNING, BulkImportJob.Status.INTERRUPTED);
+
+    private final BulkImportJobRepository jobRepository;
+    private final BulkImportJobErrorRepository errorRepository;
+    private final BookImportPipeline pipeline;
+    private final Path spoolDir;
+    private final Semaphore slots;
+    private final int maxReportedErrors;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+    private volatile boolean shuttingDown;
+
+    public BulkImportJobService(BulkImportJobRepository jobRepository,
+                                BulkImportJobErrorRepository errorRepository,
+                                BookImportPipeline pipeline,
+                                @Value("${bookverse.import.spool-dir:${java.io.tmpdir}/bookverse-import}") String spoolDir,
+                                @Value("${bookverse.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                @Value("${bookverse.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jobRepository = jobRepository;
+        this.errorRepository = errorRepository;
+        this.pipeline = pipeline;
+        this.spoolDir = Paths.get(spoolDir);
+        this.slots = new Semaphore(Math.max(1, maxConcurrentJobs), true);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /** Spools the upload to disk and queues the import; returns immediately. */
+    public BulkImportJobDto submit(MultipartFile file, String requestedBy) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Files.createDirectories(spoolDir);
+        Path spool = spoolDir.resolve(jobId + ".upload").toAbsolutePath();
+        file.transferTo(spool);
+
+        BulkImportJob job = new BulkImportJob();
+        job.setId(jobId);
+        job.setFilename(file.getOriginalFilename());
+        job.setSpoolPath(spool.toString());
+        job.setRequestedBy(requestedBy);
+        job.setStatus(BulkImportJob.Status.QUEUED);
+        job = jobRepository.save(job);
+
+        schedule(jobId);
+        return toDto(job, List.of());
+    }
+
+    public BulkImportJobDto getJob(String jobId, int errorPage, int errorSize) {
+        BulkImportJob job = findJob(jobId);
+        List<BulkImportJobError> errors = errorRepository.findByJobIdOrderByRowNumberAsc(
+                jobId, PageRequest.of(Math.max(0, errorPage), Math.min(Math.max(1, errorSize), 500)));
+        return toDto(job, errors);
+    }
+
+    /** Restarts a failed or interrupted job from its last committed chunk. */
+    public BulkImportJobDto resume(String jobId) {
+        BulkImportJob job = findJob(jobId);
+        if (!RESUMABLE.contains(job.getStatus()) || activeJobs.contains(jobId)) {
+            throw new InvalidRequestException("Job " + jobId + " is " + job.getStatus() + " and cannot be resumed");
+        }
+        if (!Files.exists(Paths.get(job.getSpoolPath()))) {
+            throw new InvalidRequestException("Upload for job " + jobId + " is no longer available");
+        }
+        job.setStatus(BulkImportJob.Status.QUEUED);
+        job.setErrorMessage(null);
+        job.setFinishedAt(null);
+        job = jobRepository.save(job);
+
+        schedule(jobId);
+        return toDto(job, List.of());
+    }
+
+    /** Picks up jobs that were queued, running or interrupted when the application stopped. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingJobs() {
+        for (BulkImportJob job : jobRepository.findByStatusIn(PENDING_ON_STARTUP)) {
+            if (Files.exists(Paths.get(job.getSpoolPath()))) {
+                logger.info("Resuming bulk import job {} after row {}", job.getId(), job.getLastCommittedRow());
+                schedule(job.getId());
+            } else {
+                jobRepository.finish(job.getId(), BulkImportJob.Status.FAILED,
+                        "Upload no longer available", LocalDateTime.now());
+            }
+        }
+    }
+
+    /** Lets running jobs finish their current chunk, then stops; they resume on next startup. */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        shuttingDown = true;
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void schedule(String jobId) {
+        if (activeJobs.add(jobId)) {
+            executor.submit(() -> run(jobId));
+        }
+    }
+
+    private void run(String jobId) {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            activeJobs.remove(jobId);
+            return;   // still QUEUED, picked up again on startup
+        }
+        try {
+            if (shuttingDown) {
+                jobRepository.finish(jobId, BulkImportJob.Status.INTERRUPTED, null, null);
+                return;
+            }
+            BulkImportJob job = findJob(jobId);
+            job.setStatus(BulkImportJob.Status.RUNNING);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(LocalDateTime.now());
+            }
+            job = jobRepository.save(job);
+
+            BulkImportResultDto result;
+            try (BookImportReader reader = BookImportReader.open(
+                    new BufferedInputStream(new FileInputStream(job.getSpoolPath())), job.getFilename())) {
+                result = pipeline.importBooks(reader, job.getLastCommittedRow(), new JobProgress(job));
+            }
+
+            if (result.isInterrupted()) {
+                jobRepository.finish(jobId, BulkImportJob.Status.INTERRUPTED, null, null);
+            } else {
+                jobRepository.finish(jobId, BulkImportJob.Status.COMPLETED, null, LocalDateTime.now());
+                Files.deleteIfExists(Paths.get(job.getSpoolPath()));
+            }
+        } catch (Exception e) {
+            logger.error("Bulk import job {} failed", jobId, e);
+            try {
+                jobRepository.finish(jobId, BulkImportJob.Status.FAILED, truncate(e.getMessage()), LocalDateTime.now());
+            } catch (RuntimeException statusError) {
+                // database unreachable: the job stays RUNNING and is resumed on next startup
+                logger.error("Could not mark bulk import job {} as failed", jobId, statusError);
+            }
+        } finally {
+            slots.release();
+            activeJobs.remove(jobId);
+        }
+    }
+
+    /** Writes each chunk's counters and errors in the chunk's own transaction. */
+    private final class JobProgress implements ImportProgressListener {
+        private final String jobId;
+        private final AtomicLong reportedErrors;
+        private final long startNanos = System.nanoTime();
+        private long rowsThisRun;
+
+        JobProgress(BulkImportJob job) {
+            this.jobId = job.getId();
+            this.reportedErrors = new AtomicLong(errorRepository.countByJobId(jobId));
+        }
+
+        @Override
+        public void onChunk(long lastRow, int rows, int imported, List<BulkImportResultDto.RowError> rejected) {
+            rowsThisRun += rows;
+            long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+            jobRepository.recordChunk(jobId, rows, imported, rejected.size(), lastRow,
+                    rowsThisRun * 1_000_000_000.0 / elapsedNanos);
+
+            long room = maxReportedErrors - reportedErrors.get();
+            if (room > 0 && !rejected.isEmpty()) {
+                List<BulkImportJobError> errors = rejected.stream()
+                        .limit(room)
+                        .map(e -> new BulkImportJobError(null, jobId, e.getRow(), truncate(e.getIsbn(), 20),
+                                truncate(e.getMessage())))
+                        .collect(Collectors.toList());
+                errorRepository.saveAll(errors);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        reportedErrors.addAndGet(errors.size());
+                    }
+                });
+            }
+        }
+
+        @Override
+        public boolean stopRequested() {
+            return shuttingDown;
+        }
+    }
+
+    private BulkImportJob findJob(String jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found: " + jobId));
+    }
+
+    private static BulkImportJobDto toDto(BulkImportJob job, List<BulkImportJobError> errors) {
+        BulkImportJobDto dto = new BulkImportJobDto();
+        dto.setJobId(job.getId());
+        dto.setFilename(job.getFilename());
+        dto.setStatus(job.getStatus().name());
+        dto.setRowsProcessed(job.getTotalRows());
+        dto.setRowsImported(job.getImportedRows());
+        dto.setRowsFailed(job.getFailedRows());
+        dto.setLastCommittedRow(job.getLastCommittedRow());
+        dto.setRowsPerSecond(job.getRowsPerSecond());
+        dto.setErrorMessage(job.getErrorMessage());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setErrors(errors.stream()
+                .map(e -> new BulkImportResultDto.RowError(e.getRowNumber(), e.getIsbn(), e.getMessage()))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    private static String truncate(String value) {
+        return truncate(value, 1000);
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+}
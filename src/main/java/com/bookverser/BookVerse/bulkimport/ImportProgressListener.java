@@ -0,0 +1,28 @@
+package com.bookverser.BookVerse.bulkimport;
+
+import java.util.List;
+
+import com.bookverser.BookVerse.dto.BulkImportResultDto;
+
+/**
+ * Callback of {@link BookImportPipeline}, invoked once per chunk.
+ */
+public interface ImportProgressListener {
+
+    ImportProgressListener NONE = (lastRow, rows, imported, rejected) -> { };
+
+    /**
+     * Called inside the chunk's transaction, so whatever the listener writes commits
+     * (or rolls back) together with the chunk's books.
+     * @param lastRow  last data row covered by this chunk.
+     * @param rows     rows in the chunk.
+     * @param imported rows written.
+     * @param rejected rows rejected, with reasons.
+     */
+    void onChunk(long lastRow, int rows, int imported, List<BulkImportResultDto.RowError> rejected);
+
+    /** Checked between chunks; returning true stops the run after the current chunk. */
+    default boolean stopRequested() {
+        return false;
+    }
+}
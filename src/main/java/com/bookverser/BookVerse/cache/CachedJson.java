@@ -0,0 +1,23 @@
+package com.bookverser.BookVerse.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A pre-serialized JSON body with its strong ETag (quoted SHA-256 of the bytes).
+ */
+public record CachedJson(byte[] body, String etag) {
+
+    public static CachedJson of(byte[] body) {
+        return new CachedJson(body, "\"" + sha256(body) + "\"");
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.bookverser.BookVerse.cache;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bookverser.BookVerse.entity.Category;
+import com.bookverser.BookVerse.repository.CategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Read-through cache of all categories, held as serialized JSON with strong ETags.
+ *
+ * The first read after a change loads every category in one query; later reads are a
+ * volatile read. Category writes invalidate it once their transaction commits. A load
+ * that raced with an invalidation is discarded, so a stale list is never published.
+ */
+@Component
+public class CategoryCache {
+
+    private record Entry(List<Category> active, CachedJson activeJson, Map<Long, CachedJson> byId) {
+    }
+
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<Entry> entry = new AtomicReference<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public CategoryCache(CategoryRepository categoryRepository, ObjectMapper objectMapper) {
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Active categories (read-only list). */
+    public List<Category> activeCategories() {
+        return load().active();
+    }
+
+    /** Active categories as JSON. */
+    public CachedJson activeCategoriesJson() {
+        return load().activeJson();
+    }
+
+    /** One category (active or not) as JSON, or null if it does not exist. */
+    public CachedJson categoryJson(Long id) {
+        return load().byId().get(id);
+    }
+
+    /** Drops the cache once the current transaction commits (immediately if there is none). */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    // ----------------- Private Helpers -----------------
+
+    private void clear() {
+        version.incrementAndGet();
+        entry.set(null);
+    }
+
+    private Entry load() {
+        Entry cached = entry.get();
+        if (cached != null) {
+            return cached;
+        }
+        long loadVersion = version.get();
+        List<Category> all = categoryRepository.findAll();
+
+        List<Category> active = all.stream().filter(Category::isActive).toList();
+        Map<Long, CachedJson> byId = new HashMap<>();
+        for (Category category : all) {
+            byId.put(category.getId(), CachedJson.of(serialize(category)));
+        }
+        Entry loaded = new Entry(active, CachedJson.of(serialize(active)), Map.copyOf(byId));
+
+        // Publish only if no invalidation happened while loading
+        if (version.get() == loadVersion) {
+            entry.compareAndSet(null, loaded);
+        }
+        return loaded;
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize categories", e);
+        }
+    }
+}
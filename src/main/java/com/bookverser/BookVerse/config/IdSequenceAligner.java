@@ -0,0 +1,81 @@
+package com.bookverser.BookVerse.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.bookverser.BookVerse.entity.Order;
+import com.bookverser.BookVerse.entity.OrderItem;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Orders and order items used to be IDENTITY columns and now draw ids from pooled
+ * sequences. MySQL has no sequences, so Hibernate keeps them in one-row tables that
+ * start at 1; on a database that already has orders this moves them past the
+ * existing ids before the first insert.
+ *
+ * Hibernate's pooled optimizer treats the stored value as the top of the next block and
+ * hands out the {@code allocationSize} ids below it, so the value must be at least
+ * {@code MAX(id) + allocationSize}. Runs after the EntityManagerFactory has created the
+ * sequence tables and before the server takes requests; a failure stops startup, since
+ * the first checkout would otherwise collide with existing rows.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class IdSequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    // Entities whose ids come from an emulated sequence; name and block size are read from their mapping
+    private static final List<Class<?>> SEQUENCED_ENTITIES = List.of(Order.class, OrderItem.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (product == null || !product.toLowerCase().contains("mysql")) {
+            return;   // native sequences: nothing emulated to fix
+        }
+        for (Class<?> entity : SEQUENCED_ENTITIES) {
+            SequenceGenerator generator = sequenceGenerator(entity);
+            String sequence = generator.sequenceName();
+            String table = entity.getAnnotation(Table.class).name();
+            long blockSize = generator.allocationSize();
+            try {
+                // Only for a table that has rows: on an empty one Hibernate's own start value is right
+                int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = " +
+                        "(SELECT MAX(id) + " + blockSize + " FROM " + table + ") " +
+                        "WHERE next_val < (SELECT COALESCE(MAX(id), 0) + " + blockSize + " FROM " + table + ") " +
+                        "AND EXISTS (SELECT 1 FROM " + table + ")");
+                if (updated > 0) {
+                    logger.info("Moved {} past existing {} ids", sequence, table);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Could not align " + sequence + " with " + table, e);
+            }
+        }
+    }
+
+    // ----------------- Private Helpers -----------------
+
+    private static SequenceGenerator sequenceGenerator(Class<?> entity) {
+        try {
+            return entity.getDeclaredField("id").getAnnotation(SequenceGenerator.class);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(entity.getSimpleName() + " has no id field", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.bookverser.BookVerse.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled maintenance jobs (e.g. rating reconciliation).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,19 +1,28 @@
 package com.bookverser.BookVerse.config;
 
+import java.nio.file.Paths;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.core.Ordered;
+
+import com.bookverser.BookVerse.web.UploadsFilter;
 
 @Configuration
-public class WebConfig implements WebMvcConfigurer {
+public class WebConfig {
 
     @Value("${file.upload-dir:uploads}")
     private String uploadDir;
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + uploadDir + "/");
+    // Uploaded files are public; serving them first keeps them clear of the security and JWT filters
+    @Bean
+    public FilterRegistrationBean<UploadsFilter> uploadsFilter() {
+        FilterRegistrationBean<UploadsFilter> registration =
+                new FilterRegistrationBean<>(new UploadsFilter(Paths.get(uploadDir)));
+        registration.addUrlPatterns(UploadsFilter.URL_PREFIX + "*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
     }
-}
\ No newline at end of file
+}
@@ -2,24 +2,33 @@ package com.bookverser.BookVerse.controller;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.bookverser.BookVerse.dto.BookDto;
+import com.bookverser.BookVerse.dto.BookFilterDTO;
+import com.bookverser.BookVerse.dto.BookPageDto;
+import com.bookverser.BookVerse.dto.BulkImportJobDto;
 import com.bookverser.BookVerse.dto.CreateBookRequestDTO;
 import com.bookverser.BookVerse.dto.UpdateBookRequestDTO;
 import com.bookverser.BookVerse.dto.UpdateStockRequestDTO;
-import com.bookverser.BookVerse.exception.DuplicateIsbnException;
-import com.bookverser.BookVerse.exception.InvalidRequestException;
 import com.bookverser.BookVerse.exception.UnauthorizedException;
 import com.bookverser.BookVerse.repository.UserRepository;
 import com.bookverser.BookVerse.serviceimpl.BookServiceImpl;
@@ -36,6 +45,9 @@ public class BookController {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${bookverse.books.cache-max-age-seconds:60}")
+    private long bookCacheMaxAgeSeconds;
+
     // ------------------- Add Book -------------------
     @PostMapping("/add")
     @PreAuthorize("hasAnyRole('SELLER', 'ADMIN')")
@@ -46,9 +58,28 @@ public class BookController {
 
     // ------------------- Get Book by ID -------------------
     @GetMapping("/{bookId}")
-    public ResponseEntity<BookDto> getBookById(@PathVariable Long bookId) {
+    // Every write to a book bumps updatedAt, so it versions the whole representation:
+    // a matching If-None-Match is answered with 304 from a one-column lookup. No Last-Modified:
+    // it has whole-second granularity, and two writes within a second would revalidate as unchanged
+    public ResponseEntity<BookDto> getBookById(@PathVariable Long bookId, WebRequest webRequest) {
+        LocalDateTime version = bookServiceImpl.getBookVersion(bookId);
+        if (webRequest.checkNotModified(bookEtag(bookId, version))) {
+            // Repeats Cache-Control so a revalidating cache keeps max-age
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(bookCacheControl()).build();
+        }
         BookDto bookdto = bookServiceImpl.getBookById(bookId);
-        return ResponseEntity.ok(bookdto);
+        return ResponseEntity.ok()
+                .eTag(bookEtag(bookId, bookdto.getUpdatedAt()))
+                .cacheControl(bookCacheControl())
+                .body(bookdto);
+    }
+
+    private CacheControl bookCacheControl() {
+        return CacheControl.maxAge(bookCacheMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
+
+    private static String bookEtag(Long bookId, LocalDateTime updatedAt) {
+        return "W/\"" + bookId + "-" + updatedAt + "\"";
     }
 
     // ------------------- Update Stock -------------------
@@ -61,11 +92,12 @@ public class BookController {
 
     // ------------------- Filter Books -------------------
     @GetMapping("/filter")
-    public ResponseEntity<List<BookDto>> filterBooks(@RequestParam(required = false) String category,
+    public ResponseEntity<Page<BookDto>> filterBooks(@RequestParam(required = false) String category,
                                                      @RequestParam(required = false) BigDecimal minPrice,
                                                      @RequestParam(required = false) BigDecimal maxPrice,
-                                                     @RequestParam(required = false) String location) {
-        List<BookDto> bookDtos = bookServiceImpl.filterBooks(category, minPrice, maxPrice, location);
+                                                     @RequestParam(required = false) String location,
+                                                     @PageableDefault(size = 20) Pageable pageable) {
+        Page<BookDto> bookDtos = bookServiceImpl.filterBooks(category, minPrice, maxPrice, location, pageable);
         if (bookDtos.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NO_CONTENT).body(null);
         }
@@ -74,12 +106,12 @@ public class BookController {
 
     // ------------------- Sort Books -------------------
     @GetMapping("/sort")
-    public ResponseEntity<List<BookDto>> sortBooks(@RequestParam(required = false) String sortBy) {
-        try {
-            return ResponseEntity.ok(bookServiceImpl.sortBooks(sortBy));
-        } catch (InvalidRequestException e) {
-            throw new InvalidRequestException("Invalid Request Exception");
-        }
+    public ResponseEntity<BookPageDto> sortBooks(@RequestParam(required = false) String sortBy,
+                                                 @RequestParam(required = false) String cursorValue,
+                                                 @RequestParam(required = false) Long cursorId,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        // Bad sortBy or cursor: GlobalException answers 400 with the service's message
+        return ResponseEntity.ok(bookServiceImpl.sortBooks(sortBy, cursorValue, cursorId, size));
     }
 
     // ------------------- Get Books by Category -------------------
@@ -114,14 +146,11 @@ public class BookController {
     // ------------------- Bulk Import Books (Admin only) -------------------
     @PostMapping("/admin/bulk-import")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> bulkImportBooks(@RequestParam("file") MultipartFile file) throws IOException {
+    public ResponseEntity<?> bulkImportBooks(@RequestParam("file") MultipartFile file) throws IOException {
         try {
-            bookServiceImpl.bulkImportBooks(file);
-            return ResponseEntity.ok("✅ Books imported successfully!");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(bookServiceImpl.bulkImportBooks(file));
         } catch (UnauthorizedException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
-        } catch (DuplicateIsbnException e) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (IOException e) {
@@ -129,14 +158,33 @@ public class BookController {
         }
     }
 
+    // ------------------- Bulk Import Job Status (Admin only) -------------------
+    @GetMapping("/admin/bulk-import/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportJobDto> getBulkImportJob(@PathVariable String jobId,
+                                                             @RequestParam(defaultValue = "0") int errorPage,
+                                                             @RequestParam(defaultValue = "100") int errorSize) {
+        return ResponseEntity.ok(bookServiceImpl.getBulkImportJob(jobId, errorPage, errorSize));
+    }
+
+    // ------------------- Resume Bulk Import Job (Admin only) -------------------
+    @PostMapping("/admin/bulk-import/{jobId}/resume")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportJobDto> resumeBulkImportJob(@PathVariable String jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bookServiceImpl.resumeBulkImportJob(jobId));
+    }
+
+    // ------------------- Reconcile Rating Aggregates (Admin only) -------------------
+    @PostMapping("/admin/ratings/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Long>> reconcileRatings() {
+        return ResponseEntity.ok(bookServiceImpl.reconcileRatings());
+    }
+
     // ------------------- Get All Books -------------------
     @GetMapping("/getAll")
-    public Page<BookDto> getAllBooks(@RequestParam(required = false) String category,
-                                     @RequestParam(required = false) String author,
-                                     @RequestParam(required = false) BigDecimal minPrice,
-                                     @RequestParam(required = false) BigDecimal maxPrice,
-                                     Pageable pageable) {
-        return bookServiceImpl.getAllBooks(pageable, category, author, minPrice, maxPrice);
+    public Page<BookDto> getAllBooks(@Valid BookFilterDTO filter, Pageable pageable) {
+        return bookServiceImpl.getAllBooks(filter, pageable);
     }
 
     // ------------------- Upload Book Image -------------------
@@ -147,18 +195,30 @@ public class BookController {
     }
 
     // ------------------- Search Books -------------------
+    // q → relevance-ranked full-text page; otherwise field-by-field match
     @GetMapping("/search")
-    public ResponseEntity<List<BookDto>> searchBooks(@RequestParam(required = false) String title,
-                                                     @RequestParam(required = false) String author,
-                                                     @RequestParam(required = false) String categoryName,
-                                                     @RequestParam(required = false) String isbn) {
+    public ResponseEntity<?> searchBooks(@RequestParam(required = false) String q,
+                                         @RequestParam(required = false) String title,
+                                         @RequestParam(required = false) String author,
+                                         @RequestParam(required = false) String categoryName,
+                                         @RequestParam(required = false) String isbn,
+                                         @PageableDefault(size = 20) Pageable pageable) {
+        if (q != null) {
+            return ResponseEntity.ok(bookServiceImpl.fullTextSearch(q, pageable));
+        }
         return ResponseEntity.ok(bookServiceImpl.searchBooks(title, author, categoryName, isbn));
     }
 
     // ------------------- Featured Books -------------------
     @GetMapping("/featured")
-    public ResponseEntity<List<BookDto>> getFeaturedBooks() {
-        return ResponseEntity.ok(bookServiceImpl.getFeaturedBooks());
+    public ResponseEntity<byte[]> getFeaturedBooks() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(bookServiceImpl.getFeaturedBooksJson());
+    }
+
+    // ------------------- New Arrivals -------------------
+    @GetMapping("/new-arrivals")
+    public ResponseEntity<byte[]> getNewArrivals() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(bookServiceImpl.getNewArrivalsJson());
     }
 
     @PatchMapping("/{bookId}/feature")
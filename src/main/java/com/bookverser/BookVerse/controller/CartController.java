@@ -107,7 +107,7 @@ public class CartController {
     
     @PostMapping("/checkout")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<Object> checkoutCart(
+    public ResponseEntity<OrderResponseDto> checkoutCart(
             Authentication authentication,
             @Valid @RequestBody CheckoutRequest request) {
 
@@ -115,7 +115,7 @@ public class CartController {
         User customer = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
 
-        Object result = cartService.checkoutCart(customer.getId(), request);
+        OrderResponseDto result = cartService.checkoutCart(customer.getId(), request);
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 }
@@ -1,14 +1,16 @@
 package com.bookverser.BookVerse.controller;
 
+import com.bookverser.BookVerse.cache.CachedJson;
 import com.bookverser.BookVerse.entity.Category;
 import com.bookverser.BookVerse.service.CategoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -28,17 +30,16 @@ public class CategoryController {
     // ✅ GET ALL ACTIVE CATEGORIES (Accessible by all authenticated users)
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/getCategory")
-    public ResponseEntity<List<Category>> getAllCategories() {
-        List<Category> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    // Served from the category cache; a matching If-None-Match gets 304 with no body
+    public ResponseEntity<byte[]> getAllCategories() {
+        return cachedJson(categoryService.getAllCategoriesJson());
     }
 
     // ✅ GET CATEGORY BY ID (Accessible by all authenticated users)
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/get/{id}")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        Category category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(category);
+    public ResponseEntity<byte[]> getCategoryById(@PathVariable Long id) {
+        return cachedJson(categoryService.getCategoryJson(id));
     }
 
     // ✅ UPDATE CATEGORY (Admin only)
@@ -64,4 +65,13 @@ public class CategoryController {
         categoryService.hardDelete(id);
         return ResponseEntity.ok("Category permanently deleted");
     }
+
+    // Spring answers If-None-Match itself (304) when the response carries an ETag
+    private static ResponseEntity<byte[]> cachedJson(CachedJson json) {
+        return ResponseEntity.ok()
+                .eTag(json.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(json.body());
+    }
 }
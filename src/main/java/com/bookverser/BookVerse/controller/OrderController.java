@@ -5,6 +5,7 @@ import com.bookverser.BookVerse.dto.BulkOrderStatusUpdateRequest;
 
 
 
+import com.bookverser.BookVerse.dto.OrderHistoryPageDto;
 import com.bookverser.BookVerse.dto.OrderResponseDto;
 import com.bookverser.BookVerse.dto.OrderSummaryDto;
 import com.bookverser.BookVerse.service.OrderService;
@@ -12,12 +13,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import com.bookverser.BookVerse.dto.AdminOrderResponseDto;
@@ -30,9 +34,16 @@ import com.bookverser.BookVerse.exception.UnauthorizedException;
 import com.bookverser.BookVerse.repository.OrderRepository;
 import com.bookverser.BookVerse.security.CustomUserDetails;
 import com.bookverser.BookVerse.service.OrderService;
+import com.bookverser.BookVerse.web.FileTransfer;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -52,45 +63,19 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class OrderController {
 
-
-	@Autowired
-	private OrderService orderService;
-
-	@Autowired
-	private OrderRepository orderRepository;
-
-	@GetMapping("/{orderId}")
-	public ResponseEntity<OrderResponseDto> getOrderById(@PathVariable Long orderId) {
-		OrderResponseDto response = orderService.getOrderById(orderId);
-		return ResponseEntity.ok(response);
-	}
-
-	/**
-	 * Get Order by ID (Admin Only)
-	 */
-	@GetMapping("/admin/{orderId}")
-	@PreAuthorize("hasRole('ADMIN')")
-	public ResponseEntity<AdminOrderResponseDto> getOrderByIdForAdmin(@PathVariable Long orderId) {
-		AdminOrderResponseDto response = orderService.getOrderByAdminId(orderId);
-		return ResponseEntity.ok(response);
-	}
-
-	@PatchMapping("/{orderId}/return")
-	public ResponseEntity<OrderResponseDto> requestReturn(@PathVariable Long orderId) {
-		OrderResponseDto response = orderService.requestReturn(orderId);
-		return ResponseEntity.ok(response);
-	}
-
-
     private final OrderService orderService;
 
     // =============== CUSTOMER: GET MY ORDERS ===============
     @GetMapping("/my")
-    public List<OrderResponseDto> getMyOrders(@AuthenticationPrincipal UserDetails userDetails) {
+    public OrderHistoryPageDto getMyOrders(
+            @AuthenticationPrincipal CustomUserDetails userDetails,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreatedAt,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "10") int size) {
         if (userDetails == null) {
-            throw new RuntimeException("Unauthorized: Please login");
+            throw new UnauthorizedException("Unauthorized: Please login");
         }
-        return orderService.getMyOrders(userDetails.getUsername());
+        return orderService.getMyOrders(userDetails.getId(), cursorCreatedAt, cursorId, size);
     }
 
     // =============== ADMIN: GET ALL ORDERS ===============
@@ -112,6 +97,26 @@ public class OrderController {
         return orderService.getAllOrders(status, from, to, customerId, pageable);
     }
 
+    // =============== ADMIN: BULK INVOICE EXPORT ===============
+    // Streams a ZIP of invoice PDFs as they are rendered; toDate is inclusive
+    @GetMapping("/admin/invoices/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportInvoices(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String fromDate,
+            @RequestParam(required = false) String toDate,
+            @RequestParam(required = false) Long sellerId,
+            HttpServletResponse response) throws IOException {
+
+        LocalDate from = fromDate != null ? LocalDate.parse(fromDate) : null;
+        LocalDate to = toDate != null ? LocalDate.parse(toDate) : null;
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("invoices.zip").build().toString());
+        orderService.exportInvoices(status, from, to, sellerId, response.getOutputStream());
+    }
+
     
  // =============== ADMIN: BULK UPDATE ORDER STATUS ===============
     @PatchMapping("/admin/orders/status/bulk")
@@ -120,9 +125,6 @@ public class OrderController {
         return orderService.bulkUpdateOrderStatus(request);
     }
 
-    @Autowired
-    private OrderService orderService;
-
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderResponseDto> getOrderById(@PathVariable Long orderId) {
         OrderResponseDto response = orderService.getOrderById(orderId);
@@ -171,16 +173,26 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+	// Rendered once per order version on the bounded InvoiceStore pool; no request thread waits
+	// for it. The stored file is then streamed with FileChannel.transferTo (see FileTransfer),
+	// since Tomcat's sendfile does not apply to async requests. Render failures such as
+	// ServiceBusyException (503) reach GlobalException unwrapped.
 	@GetMapping("/{orderId}/invoice")
-	public ResponseEntity<byte[]> generateInvoicePdf(@PathVariable Long orderId) {
-		// Generate invoice PDF
-		byte[] pdfBytes = orderService.generateInvoicePdf(orderId);
-		
-		// Return the file as a downloadable PDF
-		HttpHeaders headers = new HttpHeaders();
-		headers.setContentType(MediaType.APPLICATION_PDF);
-		headers.setContentDisposition(ContentDisposition.attachment().filename("invoice_" + orderId + ".pdf").build());
-
-		return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+	public CompletableFuture<ResponseEntity<StreamingResponseBody>> generateInvoicePdf(@PathVariable Long orderId) {
+		return orderService.generateInvoicePdf(orderId).thenApply(pdf -> {
+			long length;
+			try {
+				length = Files.size(pdf);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			StreamingResponseBody body = out -> FileTransfer.transfer(pdf, 0, length, out);
+			return ResponseEntity.ok()
+					.contentType(MediaType.APPLICATION_PDF)
+					.contentLength(length)
+					.header(HttpHeaders.CONTENT_DISPOSITION,
+							ContentDisposition.attachment().filename("invoice_" + orderId + ".pdf").build().toString())
+					.body(body);
+		});
 	}
 }
@@ -1,5 +1,6 @@
 package com.bookverser.BookVerse.controller;
 
+import com.bookverser.BookVerse.dto.RatingSummaryDto;
 import com.bookverser.BookVerse.dto.ReviewDTO;
 import com.bookverser.BookVerse.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,6 +42,15 @@ public class ReviewController {
         return ResponseEntity.ok(reviews);
     }
 
+    /**
+     * GET /api/reviews/book/{bookId}/summary
+     * Review count, average and 1-5 star histogram for a book.
+     */
+    @GetMapping("/book/{bookId}/summary")
+    public ResponseEntity<RatingSummaryDto> getRatingSummary(@PathVariable Long bookId) {
+        return ResponseEntity.ok(reviewService.getRatingSummary(bookId));
+    }
+
     // DTO for POST body
     public static class ReviewRequest {
         private Long bookId;
@@ -3,7 +3,9 @@ package com.bookverser.BookVerse.controller;
 import com.bookverser.BookVerse.dto.ChangePasswordRequest;
 import com.bookverser.BookVerse.dto.ForgotPasswordRequest;
 import com.bookverser.BookVerse.dto.LoginRequest;
-import com.bookverser.BookVerse.dto.LoginResponse;
+import com.bookverser.BookVerse.dto.LoginThrottleStatsDto;
+import com.bookverser.BookVerse.dto.MailQueueStatsDto;
+import com.bookverser.BookVerse.dto.PrincipalCacheStatsDto;
 import com.bookverser.BookVerse.dto.ResetPasswordRequest;
 import com.bookverser.BookVerse.dto.SignupDto;
 import com.bookverser.BookVerse.dto.UpdateProfileRequest;
@@ -11,7 +13,9 @@ import com.bookverser.BookVerse.dto.UserDto;
 import com.bookverser.BookVerse.dto.UserResponseDto;
 import com.bookverser.BookVerse.dto.UserStatusResponse;
 import com.bookverser.BookVerse.entity.User;
-import com.bookverser.BookVerse.security.JwtUtil;
+import com.bookverser.BookVerse.mail.MailOutbox;
+import com.bookverser.BookVerse.security.LoginThrottle;
+import com.bookverser.BookVerse.security.PrincipalCache;
 import com.bookverser.BookVerse.service.UserService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,14 +25,14 @@ import jakarta.validation.Valid;
 import java.io.IOException;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -40,15 +44,18 @@ import org.springframework.web.multipart.MultipartFile;
 public class UserController {
 
     private final UserService userService;
-    private final AuthenticationManager authenticationManager;
-    private final JwtUtil jwtUtil;
+    private final MailOutbox mailOutbox;
+    private final LoginThrottle loginThrottle;
+    private final PrincipalCache principalCache;
 
     public UserController(UserService userService,
-                          AuthenticationManager authenticationManager,
-                          JwtUtil jwtUtil) {
+                          MailOutbox mailOutbox,
+                          LoginThrottle loginThrottle,
+                          PrincipalCache principalCache) {
         this.userService = userService;
-        this.authenticationManager = authenticationManager;
-        this.jwtUtil = jwtUtil;
+        this.mailOutbox = mailOutbox;
+        this.loginThrottle = loginThrottle;
+        this.principalCache = principalCache;
     }
 
     // ==================== REGISTER ====================
@@ -85,36 +92,33 @@ public class UserController {
     }
 
     // ==================== LOGIN ====================
+    // The password check runs on the hash pool; this request thread goes back to Tomcat meanwhile.
+    // Over the attempt limit it fails with 429 before the user is loaded or hashed.
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest loginRequest) {
-        try {
-            // Authenticate
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getEmail(),
-                            loginRequest.getPassword()
-                    )
-            );
-
-            // Get UserDetails
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-
-            // Generate access and refresh tokens
-            String accessToken = jwtUtil.generateAccessToken(userDetails);
-            String refreshToken = jwtUtil.generateRefreshToken(userDetails);
-
-            // Prepare response using service
-            LoginResponse response = userService.processLogin(loginRequest, accessToken, refreshToken);
-
-            return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest loginRequest,
+                                                     HttpServletRequest request) {
+        String ip = request.getRemoteAddr();
+        loginThrottle.acquire(LoginThrottle.Scope.LOGIN, loginRequest.getEmail(), ip);
+        return userService.login(loginRequest)
+                .<ResponseEntity<?>>thenApply(response -> {
+                    loginThrottle.succeeded(LoginThrottle.Scope.LOGIN, loginRequest.getEmail(), ip);
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(this::loginFailed);
+    }
 
-        } catch (AuthenticationException e) {
+    private ResponseEntity<?> loginFailed(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof DisabledException) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(cause.getMessage());
+        }
+        if (cause instanceof AuthenticationException) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body("Invalid email or password");
-        } catch (RuntimeException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Login failed: " + e.getMessage());
         }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("Login failed: " + cause.getMessage());
     }
     // ==================== GET USER BY EMAIL ====================
     @GetMapping("/{email}")
@@ -196,9 +200,13 @@ public class UserController {
         
      // ==================== ✅ Reset Password (Request OTP)  ====================
             @PostMapping("/reset-password")
-            public ResponseEntity<?> resetPassword(@Valid @RequestBody ResetPasswordRequest request) {
+            public ResponseEntity<?> resetPassword(@Valid @RequestBody ResetPasswordRequest request,
+                                                   HttpServletRequest httpRequest) {
+                // Outside the try: over the limit is a 429, not a 400
+                loginThrottle.acquire(LoginThrottle.Scope.PASSWORD_RESET, request.getEmail(), httpRequest.getRemoteAddr());
                 try {
                     String response = userService.resetPassword(request);
+                    loginThrottle.succeeded(LoginThrottle.Scope.PASSWORD_RESET, request.getEmail(), httpRequest.getRemoteAddr());
                     return ResponseEntity.ok(response);
                 } catch (RuntimeException e) {
                     return ResponseEntity.status(400).body(e.getMessage());
@@ -251,6 +259,27 @@ public class UserController {
                 UserStatusResponse response = userService.updateUserStatus(id, active);
                 return ResponseEntity.ok(response);
             }
+
+            // ==================== ✅ Outbound Mail Queue Stats (Admin Only) ====================
+            @GetMapping("/admin/mail-queue")
+            @PreAuthorize("hasRole('ADMIN')")
+            public ResponseEntity<MailQueueStatsDto> getMailQueueStats() {
+                return ResponseEntity.ok(mailOutbox.stats());
+            }
+
+            // ==================== ✅ Login Throttle Stats (Admin Only) ====================
+            @GetMapping("/admin/login-throttle")
+            @PreAuthorize("hasRole('ADMIN')")
+            public ResponseEntity<LoginThrottleStatsDto> getLoginThrottleStats() {
+                return ResponseEntity.ok(loginThrottle.stats());
+            }
+
+            // ==================== ✅ Principal Cache Stats (Admin Only) ====================
+            @GetMapping("/admin/principal-cache")
+            @PreAuthorize("hasRole('ADMIN')")
+            public ResponseEntity<PrincipalCacheStatsDto> getPrincipalCacheStats() {
+                return ResponseEntity.ok(principalCache.stats());
+            }
             
             
 
@@ -61,6 +61,8 @@ public class BookDto {
 
 	private String imageUrl;
 
+	private String thumbnailUrl;
+
 	@NotNull(message = "Status is mandatory")
 	@Pattern(regexp = "AVAILABLE|SOLD", message = "Status must be AVAILABLE or SOLD")
 	private String status;
@@ -72,4 +74,13 @@ public class BookDto {
 	private Long categoryId;
 
 	private boolean isFeatured; 
+
+	private String sellerCity;
+
+	// Version of the book; also drives the ETag of GET /api/books/{id}
+	private LocalDateTime updatedAt;
+
+	private double averageRating;
+
+	private long ratingCount;
 }
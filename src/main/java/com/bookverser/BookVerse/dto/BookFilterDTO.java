@@ -0,0 +1,43 @@
+package com.bookverser.BookVerse.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+/**
+ * BookFilterDTO
+ * Optional filters for getAllBooks, bound from query parameters.
+ * Only the filters that are set end up in the query.
+ */
+@Data
+public class BookFilterDTO {
+
+    // Category name (exact)
+    private String category;
+
+    // Author name prefix, case-insensitive
+    private String author;
+
+    @PositiveOrZero(message = "Minimum price cannot be negative")
+    private BigDecimal minPrice;
+
+    @PositiveOrZero(message = "Maximum price cannot be negative")
+    private BigDecimal maxPrice;
+
+    @Pattern(regexp = "NEW|GOOD|OLD", message = "Condition must be NEW, GOOD, or OLD")
+    private String condition;
+
+    private Long sellerId;
+
+    // City of the seller's primary address (exact)
+    private String location;
+
+    private Boolean featured;
+
+    // Public listings only show active books unless asked otherwise
+    private Boolean active = true;
+
+    private Boolean inStock;
+}
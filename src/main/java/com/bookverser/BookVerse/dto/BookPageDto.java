@@ -0,0 +1,21 @@
+package com.bookverser.BookVerse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of sorted books.
+ * Pass nextCursorValue/nextCursorId back with the same sortBy to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookPageDto {
+    private List<BookDto> books;
+    private boolean hasMore;
+    private String nextCursorValue;
+    private Long nextCursorId;
+}
@@ -50,4 +50,7 @@ public class BulkImportBookRequestDTO {
 
     @NotNull(message = "Category ID is mandatory")
     private Long categoryId;
+
+    @NotNull(message = "Seller ID is mandatory")
+    private Long sellerId;
 }
\ No newline at end of file
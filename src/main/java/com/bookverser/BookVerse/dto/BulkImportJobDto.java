@@ -0,0 +1,32 @@
+package com.bookverser.BookVerse.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * BulkImportJobDto
+ * Status of an asynchronous bulk import job, returned on submit and when polling.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportJobDto {
+    private String jobId;
+    private String filename;
+    private String status;          // QUEUED, RUNNING, COMPLETED, FAILED, INTERRUPTED
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsFailed;
+    private long lastCommittedRow;
+    private double rowsPerSecond;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<BulkImportResultDto.RowError> errors = new ArrayList<>();
+}
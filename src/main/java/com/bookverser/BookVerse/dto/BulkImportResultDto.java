@@ -0,0 +1,34 @@
+package com.bookverser.BookVerse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BulkImportResultDto
+ * Outcome of a bulk book import: row counts, throughput and one entry per rejected row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResultDto {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private long durationMillis;
+    private double rowsPerSecond;
+    private boolean interrupted;    // stopped before the end of the input (shutdown)
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;       // 1-based data row (header excluded)
+        private String isbn;
+        private String message;
+    }
+}
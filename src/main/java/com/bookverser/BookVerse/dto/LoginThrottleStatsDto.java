@@ -0,0 +1,22 @@
+package com.bookverser.BookVerse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * LoginThrottleStatsDto
+ * Attempts turned away by the brute-force throttle since startup, and its memory use.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginThrottleStatsDto {
+    private long loginRejectedByEmail;
+    private long loginRejectedByIp;
+    private long resetRejectedByEmail;
+    private long resetRejectedByIp;
+    private long trackedKeys;
+    private long maxKeys;
+    private long evictions;              // cold keys dropped to stay within maxKeys
+}
@@ -0,0 +1,25 @@
+package com.bookverser.BookVerse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MailQueueStatsDto
+ * Depth of the outbound mail queue and send timings since startup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailQueueStatsDto {
+    private long pending;
+    private long failed;                 // gave up after the last retry
+    private long oldestPendingSeconds;
+    private long sentSinceStartup;
+    private long retriesSinceStartup;
+    private long failuresSinceStartup;
+    private long expiredSinceStartup;    // dropped unsent because they were no longer valid
+    private double avgSendMillis;        // SMTP time per message, batches averaged over their size
+    private long maxBatchMillis;
+    private double avgDeliveryMillis;    // enqueue to accepted by the SMTP server
+}
@@ -0,0 +1,22 @@
+package com.bookverser.BookVerse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One keyset page of a customer's order history, newest first.
+ * Pass nextCursorCreatedAt/nextCursorId back to fetch the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryPageDto {
+    private List<OrderResponseDto> orders;
+    private boolean hasMore;
+    private LocalDateTime nextCursorCreatedAt;
+    private Long nextCursorId;
+}
@@ -1,5 +1,7 @@
 package com.bookverser.BookVerse.dto;
 
+import com.bookverser.BookVerse.entity.Order;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,4 +20,14 @@ public class OrderSummaryDto {
     private String paymentStatus;
     private BigDecimal totalAmount;
     private LocalDateTime createdAt;
+
+    // Used by the JPQL constructor projection in OrderRepository
+    public OrderSummaryDto(Long orderId, Long customerId, String customerEmail,
+                           Order.Status status, Order.PaymentStatus paymentStatus,
+                           BigDecimal totalAmount, LocalDateTime createdAt) {
+        this(orderId, customerId, customerEmail,
+                status != null ? status.name() : null,
+                paymentStatus != null ? paymentStatus.name() : null,
+                totalAmount, createdAt);
+    }
 }
@@ -0,0 +1,21 @@
+package com.bookverser.BookVerse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * PrincipalCacheStatsDto
+ * Lookups JwtFilter answered from the principal cache instead of the users table, since startup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrincipalCacheStatsDto {
+    private long hits;
+    private long misses;                 // loaded from the database
+    private double hitRate;
+    private long evictions;              // expired or trimmed to stay within maxSize
+    private long size;
+    private long maxSize;
+}
@@ -0,0 +1,21 @@
+package com.bookverser.BookVerse.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Star summary of a book, read from its denormalized rating columns.
+ * histogram maps each star value (1-5) to its number of reviews.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryDto {
+    private Long bookId;
+    private long ratingCount;
+    private double averageRating;
+    private Map<Integer, Long> histogram;
+}
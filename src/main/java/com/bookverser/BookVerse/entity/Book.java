@@ -5,6 +5,7 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,7 +18,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_active_created_at", columnList = "is_active, created_at, id"),
+        @Index(name = "idx_books_active_price", columnList = "is_active, price, id"),
+        @Index(name = "idx_books_active_rating", columnList = "is_active, average_rating, id"),
+        @Index(name = "idx_books_active_category_price", columnList = "is_active, category_id, price"),
+        @Index(name = "idx_books_active_seller", columnList = "is_active, seller_id"),
+        @Index(name = "idx_books_active_featured", columnList = "is_active, is_featured"),
+        @Index(name = "idx_books_author", columnList = "author"),
+        @Index(name = "idx_books_active_city_category_price", columnList = "is_active, seller_city, category_id, price")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -55,6 +65,10 @@ public class Book {
     @Column(length = 255)
     private String imageUrl;
 
+    // Small cover for listings; set once BookImages has generated the variants of an upload
+    @Column(length = 255)
+    private String thumbnailUrl;
+
  // Prevent infinite recursion
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "category_id", nullable = false)
@@ -68,7 +82,9 @@ public class Book {
     @OneToMany(mappedBy = "book", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Review> reviews = new ArrayList<>();
 
-    @Column(nullable = false)
+    // Changed only through BookRepository.setStock / decrementStock, so a save() of a Book
+    // loaded before a checkout cannot write the reserved copies back
+    @Column(nullable = false, updatable = false)
     private Integer stock;
 
     @Pattern(regexp = "NEW|GOOD|OLD")
@@ -84,6 +100,44 @@ public class Book {
     @Column(nullable = false)
     private boolean isActive = true;
 
+    // City of the seller's primary address, denormalized for location filters (see SellerLocations)
+    @Column(length = 100)
+    private String sellerCity;
+
+    // Denormalized review aggregates: incremented by ReviewServiceImpl, rebuilt by BookRatingReconciler.
+    // Written only by those bulk updates; updatable = false keeps a save() of a stale Book from rolling them back
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long ratingCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private long ratingSum;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private double averageRating;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_1_count", nullable = false, updatable = false)
+    private long oneStarCount;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_2_count", nullable = false, updatable = false)
+    private long twoStarCount;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_3_count", nullable = false, updatable = false)
+    private long threeStarCount;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_4_count", nullable = false, updatable = false)
+    private long fourStarCount;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_5_count", nullable = false, updatable = false)
+    private long fiveStarCount;
+
     @CreationTimestamp
     @Column(updatable = false, nullable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,67 @@
+package com.bookverser.BookVerse.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An asynchronous bulk book import. Counters and lastCommittedRow are updated in the
+ * same transaction as each imported chunk, so after a crash the job resumes exactly
+ * after the last committed row.
+ */
+@Entity
+@Table(name = "bulk_import_jobs", indexes = {
+        @Index(name = "idx_bulk_import_jobs_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportJob {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private String filename;
+
+    @Column(nullable = false, length = 500)
+    private String spoolPath;   // uploaded file copied to local disk
+
+    private String requestedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.QUEUED;
+
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private long lastCommittedRow;   // 1-based data row; 0 = nothing committed yet
+    private double rowsPerSecond;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, INTERRUPTED
+    }
+}
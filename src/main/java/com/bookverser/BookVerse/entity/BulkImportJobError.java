@@ -0,0 +1,41 @@
+package com.bookverser.BookVerse.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rejected row of a bulk import job (error report).
+ */
+@Entity
+@Table(name = "bulk_import_job_errors", indexes = {
+        @Index(name = "idx_bulk_import_job_errors_job_row", columnList = "job_id, row_no")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportJobError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    private String jobId;
+
+    @Column(name = "row_no", nullable = false)
+    private long rowNumber;
+
+    @Column(length = 20)
+    private String isbn;
+
+    @Column(length = 1000)
+    private String message;
+}
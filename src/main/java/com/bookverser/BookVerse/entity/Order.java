@@ -15,7 +15,11 @@ import java.util.List;
  * - Uses cascade and orphanRemoval to manage OrderItem lifecycle.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_orders_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_orders_customer_created_at", columnList = "customer_id, created_at, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -24,9 +28,7 @@ public class Order {
 
     public enum Status {
 
-    	PENDING, SHIPPED, DELIVERED, CANCELLED, RETURN_REQUESTED
-
-        PENDING, SHIPPED,CONFIRMED, DELIVERED, CANCELLED
+        PENDING, SHIPPED, CONFIRMED, DELIVERED, CANCELLED, RETURN_REQUESTED
 
     }
 
@@ -34,8 +36,10 @@ public class Order {
         PAID, COD, FAILED ,REFUNDED, MANUAL_REFUND_REQUIRED
     }
 
+    // Pooled sequence instead of IDENTITY so order inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -21,8 +21,10 @@ import java.math.BigDecimal;
 @Builder
 public class OrderItem {
 
+    // Pooled sequence instead of IDENTITY so the items of an order are inserted in one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
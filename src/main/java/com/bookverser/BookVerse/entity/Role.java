@@ -21,7 +21,8 @@ public class Role {
     @Column(unique = true, nullable = false)
     private String name; // e.g., ADMIN, SELLER, CUSTOMER
 
-    @ManyToMany(mappedBy = "roles", fetch = FetchType.EAGER)
+    // Lazy: loading a user must not pull in every other user holding the same role
+    @ManyToMany(mappedBy = "roles", fetch = FetchType.LAZY)
     private Set<User> users = new HashSet<>();
 
     public Role(String name) {
@@ -0,0 +1,46 @@
+package com.bookverser.BookVerse.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One file in the content-addressed upload store, keyed by the SHA-256 of its bytes.
+ * refCount counts the rows that point at it (profile pictures, book covers); once it
+ * drops to zero orphanedAt is stamped and BlobStore's collector removes it after a grace period.
+ */
+@Entity
+@Table(name = "stored_blobs", indexes = {
+        @Index(name = "idx_stored_blobs_orphaned", columnList = "ref_count, orphaned_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash;   // lowercase hex SHA-256
+
+    @Column(nullable = false, length = 10)
+    private String extension;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "orphaned_at")
+    private LocalDateTime orphanedAt;
+}
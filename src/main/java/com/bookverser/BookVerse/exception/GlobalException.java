@@ -1,5 +1,6 @@
 package com.bookverser.BookVerse.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -54,16 +55,14 @@ public class GlobalException {
         InvalidRequestException.class,
         InvalidPaymentMethodException.class,
         InsufficientStockException.class,
+        EmptyCartException.class,
         DuplicateIsbnException.class,
         InvalidAddressException.class,
-
-
-        InvalidReturnRequestException.class  
-
+        InvalidReturnRequestException.class,
+        InvalidReviewException.class,
         RefundNotAllowedException.class,
         InvalidCategoryNameException.class,
         CategoryAlreadyExistsException.class
-
     })
     public ResponseEntity<Map<String, String>> handleBadRequest(Exception ex) {
         Map<String, String> error = new HashMap<>();
@@ -87,9 +86,28 @@ public class GlobalException {
         error.put("error", ex.getMessage());
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
-    
 
-    // 7️⃣ Generic fallback → 500
+    // 7️⃣ Background capacity exhausted → 503, client should retry
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, String>> handleServiceBusy(ServiceBusyException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(error);
+    }
+
+    // Brute-force throttle → 429
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyAttempts(TooManyAttemptsException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    // 8️⃣ Generic fallback → 500
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception ex) {
         Map<String, String> error = Map.of("error", "Internal Server Error: " + ex.getMessage());
@@ -0,0 +1,7 @@
+package com.bookverser.BookVerse.exception;
+
+public class InvalidReviewException extends RuntimeException {
+	public InvalidReviewException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.bookverser.BookVerse.exception;
+
+public class ServiceBusyException extends RuntimeException {
+
+	public ServiceBusyException(String msg) {
+		super(msg);
+	}
+}
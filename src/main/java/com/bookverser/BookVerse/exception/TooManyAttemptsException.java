@@ -0,0 +1,15 @@
+package com.bookverser.BookVerse.exception;
+
+public class TooManyAttemptsException extends RuntimeException {
+
+	private final long retryAfterSeconds;
+
+	public TooManyAttemptsException(String msg, long retryAfterSeconds) {
+		super(msg);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
@@ -0,0 +1,218 @@
+package com.bookverser.BookVerse.images;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.bookverser.BookVerse.entity.Book;
+import com.bookverser.BookVerse.exception.InvalidRequestException;
+import com.bookverser.BookVerse.repository.BookRepository;
+import com.bookverser.BookVerse.storage.BlobStore;
+import com.bookverser.BookVerse.storefront.StorefrontSnapshot;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Book cover uploads and their resized variants, kept in the shared {@link BlobStore}.
+ *
+ * The upload is checked by magic bytes and header dimensions, then stored (by content
+ * hash, so re-uploading the same cover writes nothing) and the book points at it. Once the
+ * transaction commits, the {@link Variant}s are generated on a small background pool and
+ * the book is switched to them, unless a newer upload replaced the image in the meantime.
+ * The book holds one blob reference per URL it keeps; replaced images are released.
+ */
+@Component
+public class BookImages {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookImages.class);
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /** Fixed bounding boxes (2:3, the usual cover shape); variants keep the original's aspect ratio. */
+    private enum Variant {
+        SMALL(200, 300),
+        LARGE(800, 1200);
+
+        private final int maxWidth;
+        private final int maxHeight;
+
+        Variant(int maxWidth, int maxHeight) {
+            this.maxWidth = maxWidth;
+            this.maxHeight = maxHeight;
+        }
+    }
+
+    private final BookRepository bookRepository;
+    private final BlobStore blobStore;
+    private final StorefrontSnapshot storefrontSnapshot;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxBytes;
+    private final long maxPixels;
+    private final ThreadPoolExecutor resizer;
+
+    public BookImages(BookRepository bookRepository,
+                      BlobStore blobStore,
+                      StorefrontSnapshot storefrontSnapshot,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${bookverse.images.max-bytes:10485760}") long maxBytes,
+                      @Value("${bookverse.images.max-pixels:40000000}") long maxPixels,
+                      @Value("${bookverse.images.resize-threads:2}") int resizeThreads,
+                      @Value("${bookverse.images.queue-capacity:500}") int queueCapacity) {
+        this.bookRepository = bookRepository;
+        this.blobStore = blobStore;
+        this.storefrontSnapshot = storefrontSnapshot;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBytes = maxBytes;
+        this.maxPixels = maxPixels;
+        int threads = Math.max(1, resizeThreads);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.resizer = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "book-image-resize-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.resizer.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Stores an uploaded cover and points {@code book} at it, releasing the previous image.
+     * Must run inside the transaction that saves the book; variants are queued on commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void upload(Book book, MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new InvalidRequestException("Image file is empty");
+        }
+        if (file.getSize() > maxBytes) {
+            throw new InvalidRequestException("Image exceeds the " + (maxBytes / (1024 * 1024)) + " MB limit");
+        }
+        ImageFormat format = validate(file);
+
+        // Multipart parts are already spooled to disk by the container; the store hashes and moves them, never buffering in memory
+        String originalUrl = blobStore.store(file, format.extension());
+        replace(book, originalUrl, null);
+
+        Long bookId = book.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleVariants(bookId, originalUrl);
+            }
+        });
+    }
+
+    /**
+     * Points {@code book} at an image URL set through the API or an import, keeping blob
+     * references balanced. An unknown blob URL changes nothing, so rejecting it does not mark
+     * the caller's transaction rollback-only (a bulk import skips just that row).
+     */
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = InvalidRequestException.class)
+    public void setImageUrl(Book book, String imageUrl) {
+        if (Objects.equals(book.getImageUrl(), imageUrl)) {
+            return;
+        }
+        if (BlobStore.isBlobUrl(imageUrl) && !blobStore.retain(imageUrl)) {
+            throw new InvalidRequestException("Unknown image: " + imageUrl);
+        }
+        replace(book, imageUrl, null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resizer.shutdownNow();
+    }
+
+    // ----------------- Private Helpers -----------------
+
+    private void replace(Book book, String imageUrl, String thumbnailUrl) {
+        blobStore.release(book.getImageUrl());
+        blobStore.release(book.getThumbnailUrl());
+        book.setImageUrl(imageUrl);
+        book.setThumbnailUrl(thumbnailUrl);
+    }
+
+    private ImageFormat validate(MultipartFile file) throws IOException {
+        ImageFormat format;
+        try (InputStream in = file.getInputStream()) {
+            format = ImageFormat.detect(in);
+        }
+        if (format == null) {
+            throw new InvalidRequestException("Only JPEG and PNG images are allowed");
+        }
+        Dimension size;
+        try (InputStream in = file.getInputStream()) {
+            size = ImageScaler.dimensions(in);
+        } catch (IOException e) {
+            throw new InvalidRequestException("Image could not be read: " + e.getMessage());
+        }
+        if ((long) size.width * size.height > maxPixels) {
+            throw new InvalidRequestException("Image is too large: " + size.width + "x" + size.height);
+        }
+        return format;
+    }
+
+    private void scheduleVariants(Long bookId, String originalUrl) {
+        try {
+            resizer.execute(() -> generateVariants(bookId, originalUrl));
+        } catch (RejectedExecutionException e) {
+            // The book keeps showing the original; a later upload gets variants again
+            logger.warn("Resize queue full, book {} keeps its original image {}", bookId, originalUrl);
+        }
+    }
+
+    private void generateVariants(Long bookId, String originalUrl) {
+        try {
+            // Decode once for the largest variant; the smaller one is derived from it
+            BufferedImage large = ImageScaler.fit(
+                    ImageScaler.read(blobStore.resolve(originalUrl), Variant.LARGE.maxWidth, Variant.LARGE.maxHeight),
+                    Variant.LARGE.maxWidth, Variant.LARGE.maxHeight);
+            BufferedImage small = ImageScaler.fit(large, Variant.SMALL.maxWidth, Variant.SMALL.maxHeight);
+            byte[] largeJpeg = ImageScaler.encodeJpeg(large, JPEG_QUALITY);
+            byte[] smallJpeg = ImageScaler.encodeJpeg(small, JPEG_QUALITY);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    String imageUrl = blobStore.store(largeJpeg, "jpg");
+                    String thumbnailUrl = blobStore.store(smallJpeg, "jpg");
+                    int updated = bookRepository.setImageVariants(bookId, originalUrl, imageUrl, thumbnailUrl,
+                            LocalDateTime.now());
+                    if (updated == 1) {
+                        blobStore.release(originalUrl);
+                        bookRepository.findById(bookId).ifPresent(storefrontSnapshot::bookChanged);
+                    } else {
+                        // Replaced by a newer upload while resizing
+                        blobStore.release(imageUrl);
+                        blobStore.release(thumbnailUrl);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("Generating image variants for book {} failed", bookId, e);
+        }
+    }
+}
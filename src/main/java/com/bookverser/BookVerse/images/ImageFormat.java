@@ -0,0 +1,56 @@
+package com.bookverser.BookVerse.images;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Accepted upload formats, recognised by their leading bytes rather than by the
+ * client-supplied file name or content type.
+ */
+public enum ImageFormat {
+
+    JPEG("jpg", "image/jpeg", new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF }),
+    PNG("png", "image/png", new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' });
+
+    private static final int HEADER_LENGTH = 8;
+
+    private final String extension;
+    private final String contentType;
+    private final byte[] magic;
+
+    ImageFormat(String extension, String contentType, byte[] magic) {
+        this.extension = extension;
+        this.contentType = contentType;
+        this.magic = magic;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /** Returns the format of {@code file}, or {@code null} if it is not an accepted image. */
+    public static ImageFormat detect(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return detect(in);
+        }
+    }
+
+    /** Reads the first bytes of {@code in}; returns {@code null} if it is not an accepted image. */
+    public static ImageFormat detect(InputStream in) throws IOException {
+        byte[] header = in.readNBytes(HEADER_LENGTH);
+        for (ImageFormat format : values()) {
+            if (header.length >= format.magic.length
+                    && Arrays.equals(header, 0, format.magic.length, format.magic, 0, format.magic.length)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
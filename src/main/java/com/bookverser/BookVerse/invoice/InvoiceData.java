@@ -0,0 +1,94 @@
+package com.bookverser.BookVerse.invoice;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.bookverser.BookVerse.entity.Address;
+import com.bookverser.BookVerse.entity.Order;
+import com.bookverser.BookVerse.entity.OrderItem;
+
+/**
+ * Everything printed on an invoice, copied out of the order while its session is open.
+ *
+ * {@link #contentKey()} hashes exactly these fields, so two requests for the same order
+ * version share one rendered file and any change to the order yields a new one.
+ */
+public record InvoiceData(Long orderId,
+                          LocalDateTime orderDate,
+                          String customerName,
+                          String customerEmail,
+                          String shippingAddress,
+                          List<Line> lines,
+                          BigDecimal totalPrice,
+                          String paymentStatus) {
+
+    // Bump when InvoiceRenderer's layout changes so stored PDFs are re-rendered
+    private static final int LAYOUT_VERSION = 1;
+
+    public record Line(String title, int quantity, BigDecimal unitPrice) {
+
+        public BigDecimal subtotal() {
+            return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    public static InvoiceData from(Order order) {
+        List<Line> lines = order.getOrderItems().stream()
+                .map(InvoiceData::line)
+                .toList();
+        return new InvoiceData(
+                order.getId(),
+                order.getCreatedAt(),
+                order.getCustomer() != null ? order.getCustomer().getName() : "N/A",
+                order.getCustomer() != null ? order.getCustomer().getEmail() : "N/A",
+                formatAddress(order.getShippingAddress()),
+                lines,
+                order.getTotalPrice(),
+                String.valueOf(order.getPaymentStatus()));
+    }
+
+    /** Hex SHA-256 of the printed fields; used as the stored file name. */
+    public String contentKey() {
+        StringBuilder canonical = new StringBuilder()
+                .append(LAYOUT_VERSION).append('\n')
+                .append(orderId).append('\n')
+                .append(orderDate).append('\n')
+                .append(customerName).append('\n')
+                .append(customerEmail).append('\n')
+                .append(shippingAddress).append('\n')
+                .append(totalPrice).append('\n')
+                .append(paymentStatus).append('\n');
+        for (Line line : lines) {
+            canonical.append(line.title()).append('\t')
+                    .append(line.quantity()).append('\t')
+                    .append(line.unitPrice()).append('\n');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Invoices print the price captured at checkout, not the book's current price
+    private static Line line(OrderItem item) {
+        String title = item.getBook() != null ? item.getBook().getTitle() : "N/A";
+        BigDecimal unitPrice = item.getUnitPrice() != null ? item.getUnitPrice()
+                : item.getBook() != null ? item.getBook().getPrice() : BigDecimal.ZERO;
+        return new Line(title, item.getQuantity(), unitPrice);
+    }
+
+    private static String formatAddress(Address address) {
+        if (address == null) {
+            return "N/A";
+        }
+        return address.getCity() + ", " + address.getState() + ", " + address.getCountry();
+    }
+}
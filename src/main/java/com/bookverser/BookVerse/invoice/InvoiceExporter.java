@@ -0,0 +1,168 @@
+package com.bookverser.BookVerse.invoice;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bookverser.BookVerse.entity.Order;
+import com.bookverser.BookVerse.repository.OrderRepository;
+
+/**
+ * Writes the invoices of every order matching a filter into one ZIP stream.
+ *
+ * Orders are read in keyset pages, each in its own read-only transaction. Rendering runs
+ * on virtual threads through {@link InvoiceStore#storedPdf}, so invoices rendered before
+ * are reused, with at most {@code bookverse.invoice.export-concurrency} in flight. Each
+ * PDF is copied into the ZIP from disk as soon as it is ready, so memory use does not
+ * grow with the size of the export. Invoices that fail to render are listed in
+ * {@code export-errors.txt} at the end of the archive.
+ */
+@Component
+public class InvoiceExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceExporter.class);
+
+    private static final int PAGE_SIZE = 200;
+
+    private record Rendered(Long orderId, Path pdf, String error) {
+    }
+
+    private final OrderRepository orderRepository;
+    private final InvoiceStore invoiceStore;
+    private final TransactionTemplate readOnly;
+    private final int concurrency;
+
+    public InvoiceExporter(OrderRepository orderRepository,
+                           InvoiceStore invoiceStore,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${bookverse.invoice.export-concurrency:0}") int concurrency) {
+        this.orderRepository = orderRepository;
+        this.invoiceStore = invoiceStore;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        // 0 = one render per core; rendering is CPU bound
+        this.concurrency = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+    }
+
+    /** Streams the ZIP to {@code out}. */
+    public void export(Order.Status status, LocalDateTime fromDate, LocalDateTime toDate, Long sellerId,
+                      OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.setLevel(Deflater.BEST_SPEED);   // PDF streams are already compressed
+
+        long start = System.nanoTime();
+        List<String> failures = new ArrayList<>();
+        int written = 0;
+        try (ExecutorService renderers = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<Rendered> done = new ExecutorCompletionService<>(renderers);
+            int pending = 0;
+            LocalDateTime afterCreatedAt = null;
+            Long afterId = null;
+
+            while (true) {
+                LocalDateTime cursorCreatedAt = afterCreatedAt;
+                Long cursorId = afterId;
+                List<InvoiceData> page = readOnly.execute(tx -> loadPage(status, fromDate, toDate, sellerId,
+                        cursorCreatedAt, cursorId));
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (InvoiceData invoice : page) {
+                    if (pending == concurrency) {
+                        written += writeNext(done, zip, failures);
+                        pending--;
+                    }
+                    done.submit(() -> render(invoice));
+                    pending++;
+                }
+                InvoiceData last = page.get(page.size() - 1);
+                afterCreatedAt = last.orderDate();
+                afterId = last.orderId();
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+            while (pending > 0) {
+                written += writeNext(done, zip, failures);
+                pending--;
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            zip.putNextEntry(new ZipEntry("export-errors.txt"));
+            zip.write(String.join("\n", failures).getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        zip.finish();
+        zip.flush();
+        logger.info("Exported {} invoices ({} failed) in {} ms",
+                written, failures.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<InvoiceData> loadPage(Order.Status status, LocalDateTime fromDate, LocalDateTime toDate,
+                                       Long sellerId, LocalDateTime afterCreatedAt, Long afterId) {
+        List<Long> ids = orderRepository.findInvoiceOrderIds(status, fromDate, toDate, sellerId,
+                afterCreatedAt, afterId, PageRequest.of(0, PAGE_SIZE));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Keep the keyset order; the IN query returns rows in any order
+        return orderRepository.findAllForInvoiceByIdIn(ids).stream()
+                .sorted(Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getId))
+                .map(InvoiceData::from)
+                .toList();
+    }
+
+    private Rendered render(InvoiceData invoice) {
+        try {
+            return new Rendered(invoice.orderId(), invoiceStore.storedPdf(invoice), null);
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return new Rendered(invoice.orderId(), null, String.valueOf(cause.getMessage()));
+        }
+    }
+
+    private int writeNext(CompletionService<Rendered> done, ZipOutputStream zip, List<String> failures)
+            throws IOException {
+        Rendered rendered;
+        try {
+            rendered = done.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Invoice export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Invoice export failed", e.getCause());
+        }
+        if (rendered.pdf() == null) {
+            logger.warn("Skipping invoice for order {} in export: {}", rendered.orderId(), rendered.error());
+            failures.add("Order " + rendered.orderId() + ": " + rendered.error());
+            return 0;
+        }
+        zip.putNextEntry(new ZipEntry("invoice_" + rendered.orderId() + ".pdf"));
+        Files.copy(rendered.pdf(), zip);
+        zip.closeEntry();
+        return 1;
+    }
+}
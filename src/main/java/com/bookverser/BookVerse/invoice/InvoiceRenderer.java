@@ -0,0 +1,83 @@
+package com.bookverser.BookVerse.invoice;
+
+import java.io.OutputStream;
+
+import com.itextpdf.text.Chunk;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+
+/**
+ * Lays out one invoice as PDF. Stateless; the fonts are shared and never modified,
+ * so any number of threads may render at once.
+ */
+public final class InvoiceRenderer {
+
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 20, Font.BOLD);
+    private static final Font INFO_FONT = new Font(Font.FontFamily.HELVETICA, 12);
+    private static final Font HEAD_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+    private static final Font TOTAL_FONT = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
+
+    private InvoiceRenderer() {
+    }
+
+    /** Writes the invoice to {@code out}; the stream is left open. */
+    public static void render(InvoiceData invoice, OutputStream out) throws DocumentException {
+        Document document = new Document(PageSize.A4);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+
+        // --- Title ---
+        Paragraph title = new Paragraph("BookVerse Invoice", TITLE_FONT);
+        title.setAlignment(Element.ALIGN_CENTER);
+        document.add(title);
+        document.add(Chunk.NEWLINE);
+
+        // --- Order info ---
+        document.add(new Paragraph("Order ID: " + invoice.orderId(), INFO_FONT));
+        document.add(new Paragraph("Order Date: " + invoice.orderDate(), INFO_FONT));
+        document.add(new Paragraph("Customer: " + invoice.customerName(), INFO_FONT));
+        document.add(new Paragraph("Email: " + invoice.customerEmail(), INFO_FONT));
+        document.add(new Paragraph("Shipping Address: " + invoice.shippingAddress(), INFO_FONT));
+        document.add(Chunk.NEWLINE);
+
+        // --- Items table ---
+        PdfPTable table = new PdfPTable(4);
+        table.setWidthPercentage(100);
+        table.setWidths(new int[] { 4, 1, 2, 2 });
+        table.addCell(new PdfPCell(new Phrase("Book Title", HEAD_FONT)));
+        table.addCell(new PdfPCell(new Phrase("Qty", HEAD_FONT)));
+        table.addCell(new PdfPCell(new Phrase("Unit Price", HEAD_FONT)));
+        table.addCell(new PdfPCell(new Phrase("Subtotal", HEAD_FONT)));
+        for (InvoiceData.Line line : invoice.lines()) {
+            table.addCell(line.title());
+            table.addCell(String.valueOf(line.quantity()));
+            table.addCell("₹" + line.unitPrice());
+            table.addCell("₹" + line.subtotal());
+        }
+        document.add(table);
+        document.add(Chunk.NEWLINE);
+
+        // --- Totals & footer ---
+        Paragraph total = new Paragraph("Total: ₹" + invoice.totalPrice(), TOTAL_FONT);
+        total.setAlignment(Element.ALIGN_RIGHT);
+        document.add(total);
+
+        document.add(new Paragraph("Payment Status: " + invoice.paymentStatus(), INFO_FONT));
+        document.add(Chunk.NEWLINE);
+
+        Paragraph footer = new Paragraph("Thank you for shopping with BookVerse!", INFO_FONT);
+        footer.setAlignment(Element.ALIGN_CENTER);
+        document.add(footer);
+
+        document.close();
+    }
+}
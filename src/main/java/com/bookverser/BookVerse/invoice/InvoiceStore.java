@@ -0,0 +1,147 @@
+package com.bookverser.BookVerse.invoice;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bookverser.BookVerse.exception.ServiceBusyException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Rendered invoices on disk, one file per distinct {@link InvoiceData#contentKey()}.
+ *
+ * A stored invoice is returned without rendering. Otherwise rendering runs on a fixed
+ * pool of {@code bookverse.invoice.render-threads} with a queue of
+ * {@code bookverse.invoice.queue-capacity}; concurrent requests for the same invoice
+ * share one render, and a full queue fails fast with {@link ServiceBusyException}
+ * instead of tying up the caller. Files are written to a temp name and moved into
+ * place, so readers never see a partial PDF.
+ */
+@Component
+public class InvoiceStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceStore.class);
+
+    private final Path invoiceDir;
+    private final ThreadPoolExecutor renderer;
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public InvoiceStore(@Value("${bookverse.invoice.dir:${java.io.tmpdir}/bookverse-invoices}") String invoiceDir,
+                        @Value("${bookverse.invoice.render-threads:2}") int renderThreads,
+                        @Value("${bookverse.invoice.queue-capacity:200}") int queueCapacity) {
+        this.invoiceDir = Paths.get(invoiceDir).toAbsolutePath();
+        int threads = Math.max(1, renderThreads);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.renderer = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "invoice-render-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.renderer.allowCoreThreadTimeOut(true);
+    }
+
+    /** Completes with the path of the stored PDF, rendering it first if needed. */
+    public CompletableFuture<Path> pdfFor(InvoiceData invoice) {
+        String key = invoice.contentKey();
+        Path target = invoiceDir.resolve(key + ".pdf");
+        if (Files.exists(target)) {
+            return CompletableFuture.completedFuture(target);
+        }
+        CompletableFuture<Path> render = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, render);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            renderer.execute(() -> render(key, invoice, target, render));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, render);
+            render.completeExceptionally(new ServiceBusyException("Invoice rendering is busy, please retry shortly"));
+        }
+        return render;
+    }
+
+    /**
+     * Returns the path of the stored PDF, rendering it on the calling thread if needed.
+     * For callers that bring their own bounded concurrency, such as bulk exports.
+     */
+    public Path storedPdf(InvoiceData invoice) {
+        String key = invoice.contentKey();
+        Path target = invoiceDir.resolve(key + ".pdf");
+        if (Files.exists(target)) {
+            return target;
+        }
+        CompletableFuture<Path> render = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, render);
+        if (existing != null) {
+            return existing.join();
+        }
+        render(key, invoice, target, render);
+        return render.join();
+    }
+
+    private void render(String key, InvoiceData invoice, Path target, CompletableFuture<Path> render) {
+        try {
+            render.complete(write(invoice, target));
+        } catch (Throwable e) {
+            logger.error("Rendering invoice for order {} failed", invoice.orderId(), e);
+            render.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, render);
+        }
+    }
+
+    private Path write(InvoiceData invoice, Path target) throws Exception {
+        if (Files.exists(target)) {
+            return target;   // rendered by an earlier request that finished after our check
+        }
+        Files.createDirectories(invoiceDir);
+        Path temp = Files.createTempFile(invoiceDir, "render-", ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024)) {
+                InvoiceRenderer.render(invoice, out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return target;
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary invoice file {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderer.shutdownNow();
+    }
+}
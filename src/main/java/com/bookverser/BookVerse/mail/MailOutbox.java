@@ -0,0 +1,363 @@
+package com.bookverser.BookVerse.mail;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bookverser.BookVerse.dto.MailQueueStatsDto;
+import com.bookverser.BookVerse.entity.OutboundMail;
+import com.bookverser.BookVerse.repository.OutboundMailRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Outbound mail, sent off the request thread.
+ *
+ * {@link #enqueue} only inserts an {@link OutboundMail} row in the caller's transaction, so
+ * a mail is queued exactly when the change that triggered it commits. A dispatcher thread
+ * wakes on that commit (or every {@code bookverse.mail.poll-interval-ms}), claims due rows
+ * and hands them in batches of {@code bookverse.mail.batch-size} to
+ * {@code bookverse.mail.send-threads} senders; each batch goes out over one SMTP
+ * connection. Failed mails are retried with exponential backoff and marked FAILED after
+ * {@code bookverse.mail.max-attempts}, or as soon as the next attempt would fall after the
+ * mail's expiry. Delivery is at-least-once: rows claimed by a sender that dies are picked
+ * up again when their lease runs out.
+ */
+@Service
+public class MailOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailOutbox.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundMailRepository mailRepository;
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final int batchSize;
+    private final int sendThreads;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final Duration retention;
+
+    private final ExecutorService senders;
+    private final Thread dispatcher;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private volatile boolean running = true;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder attemptedMessages = new LongAdder();
+    private final LongAdder sendNanos = new LongAdder();
+    private final LongAdder deliveryMillis = new LongAdder();
+    private final AtomicLong maxBatchNanos = new AtomicLong();
+
+    public MailOutbox(OutboundMailRepository mailRepository,
+                      JavaMailSender mailSender,
+                      @Value("${bookverse.mail.from:${spring.mail.username:}}") String from,
+                      @Value("${bookverse.mail.batch-size:20}") int batchSize,
+                      @Value("${bookverse.mail.send-threads:2}") int sendThreads,
+                      @Value("${bookverse.mail.max-attempts:8}") int maxAttempts,
+                      @Value("${bookverse.mail.backoff-base-seconds:30}") long backoffBaseSeconds,
+                      @Value("${bookverse.mail.backoff-max-seconds:3600}") long backoffMaxSeconds,
+                      @Value("${bookverse.mail.poll-interval-ms:5000}") long pollIntervalMs,
+                      @Value("${bookverse.mail.lease-seconds:300}") long leaseSeconds,
+                      @Value("${bookverse.mail.retention-days:7}") long retentionDays) {
+        this.mailRepository = mailRepository;
+        this.mailSender = mailSender;
+        this.from = from;
+        this.batchSize = Math.max(1, batchSize);
+        this.sendThreads = Math.max(1, sendThreads);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBase = Duration.ofSeconds(Math.max(1, backoffBaseSeconds));
+        this.backoffMax = Duration.ofSeconds(Math.max(backoffBaseSeconds, backoffMaxSeconds));
+        this.pollInterval = Duration.ofMillis(Math.max(100, pollIntervalMs));
+        this.lease = Duration.ofSeconds(Math.max(1, leaseSeconds));
+        this.retention = Duration.ofDays(Math.max(0, retentionDays));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(this.sendThreads, r -> {
+            Thread thread = new Thread(r, "mail-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = Thread.ofPlatform().name("mail-dispatcher").daemon().unstarted(this::dispatchLoop);
+    }
+
+    /** Queues a plain-text mail; it is sent after the surrounding transaction commits. */
+    @Transactional
+    public void enqueue(String to, String subject, String text) {
+        enqueue(to, subject, text, null);
+    }
+
+    /**
+     * Queues a plain-text mail that is only worth delivering within {@code maxAge}, such as a
+     * one-time code; once that has passed it is marked FAILED rather than sent.
+     */
+    @Transactional
+    public void enqueue(String to, String subject, String text, Duration maxAge) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboundMail mail = new OutboundMail();
+        mail.setRecipient(to);
+        mail.setSubject(subject);
+        mail.setBody(text);
+        mail.setStatus(OutboundMail.Status.PENDING);
+        mail.setNextAttemptAt(now);
+        mail.setExpiresAt(maxAge != null ? now.plus(maxAge) : null);
+        mailRepository.save(mail);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp.release();
+            }
+        });
+    }
+
+    public MailQueueStatsDto stats() {
+        LocalDateTime oldest = mailRepository.findOldestPendingCreatedAt();
+        long attempted = attemptedMessages.sum();
+        long delivered = sent.sum();
+        return new MailQueueStatsDto(
+                mailRepository.countByStatus(OutboundMail.Status.PENDING),
+                mailRepository.countByStatus(OutboundMail.Status.FAILED),
+                oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()) : 0,
+                delivered,
+                retries.sum(),
+                failures.sum(),
+                expired.sum(),
+                attempted > 0 ? sendNanos.sum() / 1_000_000.0 / attempted : 0,
+                maxBatchNanos.get() / 1_000_000,
+                delivered > 0 ? (double) deliveryMillis.sum() / delivered : 0);
+    }
+
+    /** Starts sending once the schema is in place, including mails queued before a restart. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (dispatcher.getState() == Thread.State.NEW) {
+            dispatcher.start();
+        }
+    }
+
+    /** Removes sent mails older than {@code bookverse.mail.retention-days}. */
+    @Scheduled(cron = "${bookverse.mail.purge-cron:0 15 4 * * *}")
+    public int purgeSent() {
+        return mailRepository.deleteSentBefore(LocalDateTime.now().minus(retention));
+    }
+
+    /** Stops after the batches in flight; claimed but unsent mails are retried after their lease. */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        senders.shutdown();
+        if (!senders.awaitTermination(10, TimeUnit.SECONDS)) {
+            senders.shutdownNow();
+        }
+    }
+
+    // ----------------- Private Helpers -----------------
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                wakeUp.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+                // A full window means more mail may already be due
+                while (running && dispatchDue() == batchSize * sendThreads) {
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Mail dispatch failed, retrying in {} ms", pollInterval.toMillis(), e);
+            }
+        }
+    }
+
+    // Package-private so tests can drive one round against an SMTP stub without the dispatcher thread
+    int dispatchDue() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboundMail> due = mailRepository.findDue(now, PageRequest.of(0, batchSize * sendThreads));
+        LocalDateTime leaseUntil = now.plus(lease);
+        List<OutboundMail> claimed = new ArrayList<>(due.size());
+        for (OutboundMail mail : due) {
+            if (mailRepository.claim(mail.getId(), mail.getAttempts(), leaseUntil) == 1) {
+                mail.setAttempts(mail.getAttempts() + 1);
+                claimed.add(mail);
+            }
+        }
+
+        List<Callable<Void>> batches = new ArrayList<>();
+        for (int i = 0; i < claimed.size(); i += batchSize) {
+            List<OutboundMail> batch = claimed.subList(i, Math.min(claimed.size(), i + batchSize));
+            batches.add(() -> {
+                sendBatch(batch);
+                return null;
+            });
+        }
+        senders.invokeAll(batches);
+        return due.size();
+    }
+
+    private void sendBatch(List<OutboundMail> batch) {
+        // MimeMessage has identity equality, which is what the failure map from the sender is keyed on
+        Map<MimeMessage, OutboundMail> messages = new LinkedHashMap<>();
+        LocalDateTime claimedAt = LocalDateTime.now();
+        for (OutboundMail mail : batch) {
+            if (mail.getExpiresAt() != null && !mail.getExpiresAt().isAfter(claimedAt)) {
+                expire(mail);
+                continue;
+            }
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                giveUp(mail, e);   // malformed address; retrying cannot help
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failed;
+        long start = System.nanoTime();
+        try {
+            // One send call opens one SMTP connection and reuses it for the whole batch
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            failed = Map.of();
+        } catch (MailSendException e) {
+            failed = e.getFailedMessages().isEmpty() ? allFailed(messages, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failed = allFailed(messages, e);
+        }
+        long elapsed = System.nanoTime() - start;
+        attemptedMessages.add(messages.size());
+        sendNanos.add(elapsed);
+        maxBatchNanos.accumulateAndGet(elapsed, Math::max);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sentIds = new ArrayList<>(messages.size());
+        for (Map.Entry<MimeMessage, OutboundMail> entry : messages.entrySet()) {
+            OutboundMail mail = entry.getValue();
+            Exception error = failed.get(entry.getKey());
+            if (error == null) {
+                sentIds.add(mail.getId());
+                deliveryMillis.add(Math.max(0, Duration.between(mail.getCreatedAt(), now).toMillis()));
+            } else {
+                retryOrGiveUp(mail, error);
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            mailRepository.markSent(sentIds, now);
+            sent.add(sentIds.size());
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboundMail mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        if (from != null && !from.isBlank()) {
+            helper.setFrom(from);
+        }
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getBody());
+        return message;
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, OutboundMail> messages, Exception error) {
+        Map<Object, Exception> failed = new LinkedHashMap<>();
+        messages.keySet().forEach(message -> failed.put(message, error));
+        return failed;
+    }
+
+    private void retryOrGiveUp(OutboundMail mail, Exception error) {
+        if (mail.getAttempts() >= maxAttempts || isRecipientRejected(error)) {
+            giveUp(mail, error);
+            return;
+        }
+        Duration delay = backoff(mail.getAttempts());
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(delay);
+        if (mail.getExpiresAt() != null && nextAttemptAt.isAfter(mail.getExpiresAt())) {
+            giveUp(mail, error);   // the retry would only deliver an expired mail
+            return;
+        }
+        mailRepository.retryAt(mail.getId(), nextAttemptAt, truncate(error.getMessage()));
+        retries.increment();
+        logger.warn("Mail {} failed on attempt {}, retrying in {} s: {}",
+                mail.getId(), mail.getAttempts(), delay.toSeconds(), error.getMessage());
+    }
+
+    private void giveUp(OutboundMail mail, Exception error) {
+        mailRepository.markFailed(mail.getId(), truncate(error.getMessage()));
+        failures.increment();
+        logger.error("Mail {} failed after {} attempts: {}", mail.getId(), mail.getAttempts(), error.getMessage());
+    }
+
+    private void expire(OutboundMail mail) {
+        mailRepository.markFailed(mail.getId(), "Expired before it could be sent");
+        expired.increment();
+        logger.warn("Mail {} expired before it could be sent", mail.getId());
+    }
+
+    // The server refused the address itself (5xx on RCPT); no retry will change that
+    private static boolean isRecipientRejected(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof SendFailedException failed
+                    && failed.getInvalidAddresses() != null && failed.getInvalidAddresses().length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // base * 2^(attempt - 1), capped, with +-20% jitter so a recovered server is not hit all at once
+    private Duration backoff(int attempt) {
+        long millis = backoffBase.toMillis() << Math.min(attempt - 1, 20);
+        millis = Math.min(millis, backoffMax.toMillis());
+        return Duration.ofMillis((long) (millis * ThreadLocalRandom.current().nextDouble(0.8, 1.2)));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
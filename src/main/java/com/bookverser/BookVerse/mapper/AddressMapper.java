@@ -0,0 +1,16 @@
+package com.bookverser.BookVerse.mapper;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+
+import com.bookverser.BookVerse.dto.AddressResponseDto;
+import com.bookverser.BookVerse.entity.Address;
+
+@Mapper(componentModel = "spring")
+public interface AddressMapper {
+
+    AddressResponseDto toDto(Address address);
+
+    List<AddressResponseDto> toDtos(List<Address> addresses);
+}
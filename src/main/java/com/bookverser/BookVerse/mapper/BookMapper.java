@@ -0,0 +1,28 @@
+package com.bookverser.BookVerse.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import com.bookverser.BookVerse.dto.BookDto;
+import com.bookverser.BookVerse.dto.CreateBookRequestDTO;
+import com.bookverser.BookVerse.entity.Book;
+
+/**
+ * Book mappings, generated at compile time (no reflection, no lazy loading:
+ * seller/category only contribute their ids, which Hibernate proxies hold).
+ */
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface BookMapper {
+
+    @Mapping(target = "sellerId", source = "seller.id")
+    @Mapping(target = "categoryId", source = "category.id")
+    BookDto toDto(Book book);
+
+    // id, category, seller and flags are set by the service; imageUrl goes through BookImages
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "category", ignore = true)
+    @Mapping(target = "seller", ignore = true)
+    @Mapping(target = "imageUrl", ignore = true)
+    Book toEntity(CreateBookRequestDTO request);
+}
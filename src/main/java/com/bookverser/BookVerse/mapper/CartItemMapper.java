@@ -0,0 +1,32 @@
+package com.bookverser.BookVerse.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import com.bookverser.BookVerse.dto.CartItemDto;
+import com.bookverser.BookVerse.entity.CartItem;
+import com.bookverser.BookVerse.entity.OrderItem;
+
+@Mapper(componentModel = "spring")
+public interface CartItemMapper {
+
+    // price is the book's current price
+    @Mapping(target = "bookId", source = "book.id")
+    @Mapping(target = "title", source = "book.title")
+    @Mapping(target = "author", source = "book.author")
+    @Mapping(target = "price", source = "book.price")
+    @Mapping(target = "total", expression = "java(total(item.getBook().getPrice(), item.getQuantity()))")
+    CartItemDto toDto(CartItem item);
+
+    // price is the unit price the order was placed at
+    @Mapping(target = "bookId", source = "book.id")
+    @Mapping(target = "title", source = "book.title")
+    @Mapping(target = "author", source = "book.author")
+    @Mapping(target = "price", source = "unitPrice")
+    @Mapping(target = "total", expression = "java(total(item.getUnitPrice(), item.getQuantity()))")
+    CartItemDto toDto(OrderItem item);
+
+    default java.math.BigDecimal total(java.math.BigDecimal price, int quantity) {
+        return price != null ? price.multiply(java.math.BigDecimal.valueOf(quantity)) : null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bookverser.BookVerse.mapper;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import com.bookverser.BookVerse.dto.OrderDTO;
+import com.bookverser.BookVerse.dto.OrderResponseDto;
+import com.bookverser.BookVerse.entity.Order;
+import com.bookverser.BookVerse.entity.OrderItem;
+
+@Mapper(componentModel = "spring", uses = {AddressMapper.class, CartItemMapper.class},
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface OrderMapper {
+
+    // Single-line view of an order: seller and book come from its first item
+    @Mapping(target = "buyerId", source = "customer.id")
+    @Mapping(target = "sellerId", expression = "java(firstItem(order) != null ? firstItem(order).getSeller().getId() : null)")
+    @Mapping(target = "bookId", expression = "java(firstItem(order) != null ? firstItem(order).getBook().getId() : null)")
+    OrderDTO toDto(Order order);
+
+    @Mapping(target = "orderId", source = "id")
+    @Mapping(target = "customerId", source = "customer.id")
+    @Mapping(target = "paymentMethod", source = "paymentStatus")
+    @Mapping(target = "totalAmount", source = "totalPrice")
+    @Mapping(target = "items", source = "orderItems")
+    OrderResponseDto toResponse(Order order);
+
+    default OrderItem firstItem(Order order) {
+        return order.getOrderItems() == null || order.getOrderItems().isEmpty() ? null : order.getOrderItems().get(0);
+    }
+}
@@ -0,0 +1,21 @@
+package com.bookverser.BookVerse.mapper;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import com.bookverser.BookVerse.dto.UserResponseDto;
+import com.bookverser.BookVerse.dto.UserStatusResponse;
+import com.bookverser.BookVerse.entity.User;
+
+@Mapper(componentModel = "spring", uses = AddressMapper.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface UserMapper {
+
+    // role: first role name (users have one role), status: ACTIVE / INACTIVE
+    @Mapping(target = "role", expression = "java(user.getRoles().stream().findFirst().map(r -> r.getName()).orElse(\"USER\"))")
+    @Mapping(target = "status", expression = "java(user.isActive() ? \"ACTIVE\" : \"INACTIVE\")")
+    UserResponseDto toDto(User user);
+
+    @Mapping(target = "status", expression = "java(user.isActive() ? \"UNBLOCK\" : \"BLOCKED\")")
+    UserStatusResponse toStatusResponse(User user);
+}
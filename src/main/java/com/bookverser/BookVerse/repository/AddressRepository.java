@@ -3,8 +3,11 @@ package com.bookverser.BookVerse.repository;
 import com.bookverser.BookVerse.entity.Address;
 import com.bookverser.BookVerse.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,9 @@ import java.util.Optional;
 public interface AddressRepository extends JpaRepository<Address, Long> {
     List<Address> findByUser(User user);
     Optional<Address> findByIdAndUser(Long id, User user);
+
+    // [userId, city] of each user's primary (first) address
+    @Query("SELECT a.user.id, a.city FROM Address a WHERE a.id IN " +
+           "(SELECT MIN(a2.id) FROM Address a2 WHERE a2.user.id IN :userIds GROUP BY a2.user.id)")
+    List<Object[]> findPrimaryCities(@Param("userIds") Collection<Long> userIds);
 }
@@ -1,9 +1,16 @@
 package com.bookverser.BookVerse.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,11 +18,19 @@ import org.springframework.stereotype.Repository;
 import com.bookverser.BookVerse.entity.Book;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
 
     // ✅ Unique ISBN check
     boolean existsByIsbn(String isbn);
 
+    // ✅ Version lookup for conditional GETs (no entity hydration)
+    @Query("SELECT b.updatedAt FROM Book b WHERE b.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // ✅ Set-based ISBN check (bulk import, one query per chunk)
+    @Query("SELECT b.isbn FROM Book b WHERE b.isbn IN :isbns")
+    Set<String> findExistingIsbns(@Param("isbns") Collection<String> isbns);
+
     // ------------------- Search by multiple fields -------------------
     @Query("SELECT b FROM Book b " +
             "WHERE (:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
@@ -42,34 +57,116 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
     List<Book> findByCategory_Name(String categoryName);
 
-    List<Book> findByFeaturedTrue();
-
-    // ------------------- Advanced Filter with location -------------------
-    @Query("SELECT b FROM Book b " +
-            "JOIN b.category c " +
-            "JOIN b.seller s " +
-            "JOIN s.addresses a " +
-            "WHERE (:category IS NULL OR c.name = :category) " +
-            "AND (:minPrice IS NULL OR b.price >= :minPrice) " +
-            "AND (:maxPrice IS NULL OR b.price <= :maxPrice) " +
-            "AND (:location IS NULL OR a.city = :location)")
-    List<Book> findAllFilter(@Param("category") String category,
-                             @Param("minPrice") BigDecimal minPrice,
-                             @Param("maxPrice") BigDecimal maxPrice,
-                             @Param("location") String location);
-
-    // ------------------- Sorting Queries -------------------
-    @Query("SELECT b FROM Book b ORDER BY b.createdAt DESC")
-    List<Book> findAllByLatest();
-
-    @Query("SELECT b FROM Book b ORDER BY b.price ASC")
-    List<Book> findAllByPriceAsc();
-
-    @Query("SELECT b FROM Book b ORDER BY b.price DESC")
-    List<Book> findAllByPriceDesc();
-
-    @Query("SELECT b FROM Book b LEFT JOIN Review r ON r.book = b " +
-           "GROUP BY b.id ORDER BY COALESCE(AVG(r.rating), 0) DESC")
-    List<Book> findAllByRating();
+    @Query("SELECT b FROM Book b WHERE b.isActive = true AND b.featured = true ORDER BY b.id DESC")
+    List<Book> findFeatured(Pageable limit);
+
+    // ------------------- Sorting Queries (keyset paged, active books only) -------------------
+    // Backed by idx_books_active_created_at and idx_books_active_price; pass PageRequest.of(0, n) as the limit
+    @Query("SELECT b FROM Book b WHERE b.isActive = true ORDER BY b.createdAt DESC, b.id DESC")
+    List<Book> findLatest(Pageable limit);
+
+    @Query("SELECT b FROM Book b WHERE b.isActive = true " +
+           "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Book> findLatestBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query("SELECT b FROM Book b WHERE b.isActive = true ORDER BY b.price ASC, b.id ASC")
+    List<Book> findByPriceAsc(Pageable limit);
+
+    @Query("SELECT b FROM Book b WHERE b.isActive = true " +
+           "AND (b.price > :price OR (b.price = :price AND b.id > :id)) " +
+           "ORDER BY b.price ASC, b.id ASC")
+    List<Book> findByPriceAscAfter(@Param("price") BigDecimal price, @Param("id") Long id, Pageable limit);
+
+    @Query("SELECT b FROM Book b WHERE b.isActive = true ORDER BY b.price DESC, b.id DESC")
+    List<Book> findByPriceDesc(Pageable limit);
+
+    @Query("SELECT b FROM Book b WHERE b.isActive = true " +
+           "AND (b.price < :price OR (b.price = :price AND b.id < :id)) " +
+           "ORDER BY b.price DESC, b.id DESC")
+    List<Book> findByPriceDescAfter(@Param("price") BigDecimal price, @Param("id") Long id, Pageable limit);
+
+    // Backed by idx_books_active_rating over the denormalized average
+    @Query("SELECT b FROM Book b WHERE b.isActive = true ORDER BY b.averageRating DESC, b.id DESC")
+    List<Book> findTopRated(Pageable limit);
+
+    @Query("SELECT b FROM Book b WHERE b.isActive = true " +
+           "AND (b.averageRating < :rating OR (b.averageRating = :rating AND b.id < :id)) " +
+           "ORDER BY b.averageRating DESC, b.id DESC")
+    List<Book> findTopRatedAfter(@Param("rating") double rating, @Param("id") Long id, Pageable limit);
+
+    // ------------------- Rating Aggregates -------------------
+    // averageRating is assigned first: MySQL evaluates SET left to right against already-updated columns
+    @Modifying
+    @Query("UPDATE Book b SET " +
+           "b.averageRating = (b.ratingSum + :rating) / (b.ratingCount + 1.0), " +
+           "b.ratingCount = b.ratingCount + 1, " +
+           "b.ratingSum = b.ratingSum + :rating, " +
+           "b.oneStarCount = b.oneStarCount + CASE WHEN :rating = 1 THEN 1 ELSE 0 END, " +
+           "b.twoStarCount = b.twoStarCount + CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+           "b.threeStarCount = b.threeStarCount + CASE WHEN :rating = 3 THEN 1 ELSE 0 END, " +
+           "b.fourStarCount = b.fourStarCount + CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+           "b.fiveStarCount = b.fiveStarCount + CASE WHEN :rating = 5 THEN 1 ELSE 0 END, " +
+           "b.updatedAt = :now " +
+           "WHERE b.id = :id")
+    int addRating(@Param("id") Long id, @Param("rating") int rating, @Param("now") LocalDateTime now);
+
+    // Compare-and-set rebuild: skipped (returns 0) if a review landed since the aggregates were read
+    @Modifying
+    @Query("UPDATE Book b SET b.ratingCount = :count, b.ratingSum = :sum, b.averageRating = :average, " +
+           "b.oneStarCount = :one, b.twoStarCount = :two, b.threeStarCount = :three, " +
+           "b.fourStarCount = :four, b.fiveStarCount = :five, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.ratingCount = :expectedCount AND b.ratingSum = :expectedSum")
+    int replaceRatings(@Param("id") Long id,
+                       @Param("count") long count, @Param("sum") long sum, @Param("average") double average,
+                       @Param("one") long one, @Param("two") long two, @Param("three") long three,
+                       @Param("four") long four, @Param("five") long five,
+                       @Param("expectedCount") long expectedCount, @Param("expectedSum") long expectedSum,
+                       @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM Book b WHERE b.id > :afterId ORDER BY b.id")
+    List<Book> findBooksAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // ------------------- Book Images -------------------
+    // Switches a cover to its generated variants unless another upload replaced it meanwhile
+    @Modifying
+    @Query("UPDATE Book b SET b.imageUrl = :imageUrl, b.thumbnailUrl = :thumbnailUrl, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.imageUrl = :originalUrl")
+    int setImageVariants(@Param("id") Long id, @Param("originalUrl") String originalUrl,
+                         @Param("imageUrl") String imageUrl, @Param("thumbnailUrl") String thumbnailUrl,
+                         @Param("now") LocalDateTime now);
+
+    // ------------------- Seller Location -------------------
+    @Modifying
+    @Query("UPDATE Book b SET b.sellerCity = :city, b.updatedAt = :now " +
+           "WHERE b.seller.id = :sellerId AND (b.sellerCity IS NULL OR b.sellerCity <> :city)")
+    int updateSellerCity(@Param("sellerId") Long sellerId, @Param("city") String city, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.sellerCity = NULL, b.updatedAt = :now " +
+           "WHERE b.seller.id = :sellerId AND b.sellerCity IS NOT NULL")
+    int clearSellerCity(@Param("sellerId") Long sellerId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Book b SET b.sellerCity = (SELECT a.city FROM Address a WHERE a.id = " +
+           "(SELECT MIN(a2.id) FROM Address a2 WHERE a2.user.id = b.seller.id)), b.updatedAt = :now " +
+           "WHERE b.sellerCity IS NULL AND EXISTS (SELECT a3.id FROM Address a3 WHERE a3.user.id = b.seller.id)")
+    int backfillSellerCities(@Param("now") LocalDateTime now);
+
+    // ------------------- Stock Reservation -------------------
+    // Conditional decrement: returns 0 (and changes nothing) when stock is insufficient
+    @Modifying
+    @Query("UPDATE Book b SET b.stock = b.stock - :quantity, b.updatedAt = :now " +
+           "WHERE b.id = :id AND b.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    // Seller/admin stock correction; the only other writer of stock besides decrementStock
+    @Modifying
+    @Query("UPDATE Book b SET b.stock = :stock, b.updatedAt = :now WHERE b.id = :id")
+    int setStock(@Param("id") Long id, @Param("stock") int stock, @Param("now") LocalDateTime now);
+
+    // ------------------- Search Index Rebuild -------------------
+    @Query("SELECT b FROM Book b WHERE b.isActive = true AND b.id > :afterId ORDER BY b.id")
+    List<Book> findActiveBooksAfter(@Param("afterId") Long afterId, Pageable pageable);
 
 }
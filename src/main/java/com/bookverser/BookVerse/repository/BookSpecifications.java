@@ -0,0 +1,87 @@
+package com.bookverser.BookVerse.repository;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.bookverser.BookVerse.dto.BookFilterDTO;
+import com.bookverser.BookVerse.entity.Book;
+
+/**
+ * Composable filters for {@link BookRepository#findAll(Specification, org.springframework.data.domain.Pageable)}.
+ * Every factory returns null for a missing value, which Specification.and() skips,
+ * so only the predicates that are present reach the SQL.
+ */
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> matching(BookFilterDTO filter) {
+        return Specification.allOf(
+                active(filter.getActive()),
+                featured(filter.getFeatured()),
+                categoryName(filter.getCategory()),
+                sellerId(filter.getSellerId()),
+                sellerCity(filter.getLocation()),
+                condition(filter.getCondition()),
+                authorStartsWith(filter.getAuthor()),
+                minPrice(filter.getMinPrice()),
+                maxPrice(filter.getMaxPrice()),
+                Boolean.TRUE.equals(filter.getInStock()) ? inStock() : null);
+    }
+
+    public static Specification<Book> active(Boolean active) {
+        return active == null ? null : (root, query, cb) -> cb.equal(root.get("isActive"), active);
+    }
+
+    public static Specification<Book> featured(Boolean featured) {
+        return featured == null ? null : (root, query, cb) -> cb.equal(root.get("featured"), featured);
+    }
+
+    public static Specification<Book> categoryName(String name) {
+        return isBlank(name) ? null : (root, query, cb) -> cb.equal(root.join("category").get("name"), name.trim());
+    }
+
+    public static Specification<Book> sellerId(Long sellerId) {
+        return sellerId == null ? null : (root, query, cb) -> cb.equal(root.get("seller").get("id"), sellerId);
+    }
+
+    public static Specification<Book> sellerCity(String city) {
+        return isBlank(city) ? null : (root, query, cb) -> cb.equal(root.get("sellerCity"), city.trim());
+    }
+
+    public static Specification<Book> condition(String condition) {
+        return isBlank(condition) ? null : (root, query, cb) -> cb.equal(root.get("condition"), condition.trim());
+    }
+
+    // Prefix match so idx_books_author can be used; case-insensitivity comes from the
+    // column's default MySQL collation (wrapping it in LOWER() would defeat the index)
+    public static Specification<Book> authorStartsWith(String author) {
+        if (isBlank(author)) {
+            return null;
+        }
+        String pattern = escapeLike(author.trim()) + "%";
+        return (root, query, cb) -> cb.like(root.get("author"), pattern, '\\');
+    }
+
+    public static Specification<Book> minPrice(BigDecimal minPrice) {
+        return minPrice == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Book> maxPrice(BigDecimal maxPrice) {
+        return maxPrice == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Book> inStock() {
+        return (root, query, cb) -> cb.greaterThan(root.get("stock"), 0);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,17 @@
+package com.bookverser.BookVerse.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.bookverser.BookVerse.entity.BulkImportJobError;
+
+@Repository
+public interface BulkImportJobErrorRepository extends JpaRepository<BulkImportJobError, Long> {
+
+    List<BulkImportJobError> findByJobIdOrderByRowNumberAsc(String jobId, Pageable pageable);
+
+    long countByJobId(String jobId);
+}
@@ -0,0 +1,41 @@
+package com.bookverser.BookVerse.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookverser.BookVerse.entity.BulkImportJob;
+
+@Repository
+public interface BulkImportJobRepository extends JpaRepository<BulkImportJob, String> {
+
+    List<BulkImportJob> findByStatusIn(Collection<BulkImportJob.Status> statuses);
+
+    // Progress of one committed chunk; runs inside the chunk's transaction
+    @Modifying
+    @Query("UPDATE BulkImportJob j SET j.totalRows = j.totalRows + :rows, " +
+           "j.importedRows = j.importedRows + :imported, j.failedRows = j.failedRows + :failed, " +
+           "j.lastCommittedRow = :lastRow, j.rowsPerSecond = :rowsPerSecond WHERE j.id = :id")
+    int recordChunk(@Param("id") String id,
+                    @Param("rows") long rows,
+                    @Param("imported") long imported,
+                    @Param("failed") long failed,
+                    @Param("lastRow") long lastRow,
+                    @Param("rowsPerSecond") double rowsPerSecond);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BulkImportJob j SET j.status = :status, j.errorMessage = :errorMessage, " +
+           "j.finishedAt = :finishedAt WHERE j.id = :id")
+    int finish(@Param("id") String id,
+               @Param("status") BulkImportJob.Status status,
+               @Param("errorMessage") String errorMessage,
+               @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -3,7 +3,10 @@ package com.bookverser.BookVerse.repository;
 import java.util.List;
 import java.util.Optional;
 
+import java.util.Set;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.bookverser.BookVerse.entity.Category;
@@ -12,4 +15,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long>{
 	Optional<Category> findByName(String name);
 
     List<Category> findByIsActiveTrue();
+
+    @Query("SELECT c.id FROM Category c")
+    Set<Long> findAllIds();
 }
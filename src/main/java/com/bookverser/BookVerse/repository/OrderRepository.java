@@ -4,23 +4,21 @@ package com.bookverser.BookVerse.repository;
 import com.bookverser.BookVerse.entity.User;
 import com.bookverser.BookVerse.entity.Book;
 
+import com.bookverser.BookVerse.dto.OrderSummaryDto;
 import com.bookverser.BookVerse.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
-
-import java.util.Optional;
-
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    
-	@Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.book WHERE o.id = :id")
-    Optional<Order> findById(@Param("id") Long id);
-}
-
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+@Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
 	@Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.book WHERE o.id = :id")
@@ -30,4 +28,80 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
            "FROM Order o JOIN o.orderItems oi " +
            "WHERE o.customer = :customer AND oi.book = :book")
     boolean existsByCustomerAndBook(@Param("customer") User customer, @Param("book") Book book);
+
+    // Admin order listing: filtered, paged and projected in the database
+    @Query(value = """
+            SELECT new com.bookverser.BookVerse.dto.OrderSummaryDto(
+                   o.id, c.id, c.email, o.status, o.paymentStatus, o.totalPrice, o.createdAt)
+            FROM Order o JOIN o.customer c
+            WHERE (:status IS NULL OR o.status = :status)
+              AND (:fromDate IS NULL OR o.createdAt >= :fromDate)
+              AND (:toDate IS NULL OR o.createdAt < :toDate)
+              AND (:customerId IS NULL OR c.id = :customerId)
+            ORDER BY o.createdAt DESC, o.id DESC
+            """,
+           countQuery = """
+            SELECT COUNT(o) FROM Order o
+            WHERE (:status IS NULL OR o.status = :status)
+              AND (:fromDate IS NULL OR o.createdAt >= :fromDate)
+              AND (:toDate IS NULL OR o.createdAt < :toDate)
+              AND (:customerId IS NULL OR o.customer.id = :customerId)
+            """)
+    Page<OrderSummaryDto> findOrderSummaries(@Param("status") Order.Status status,
+                                             @Param("fromDate") LocalDateTime fromDate,
+                                             @Param("toDate") LocalDateTime toDate,
+                                             @Param("customerId") Long customerId,
+                                             Pageable pageable);
+
+    // Customer order history, keyset paged by (createdAt, id) newest first
+    @Query("SELECT o.id FROM Order o WHERE o.customer.id = :customerId " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findLatestOrderIdsByCustomer(@Param("customerId") Long customerId, Pageable limit);
+
+    @Query("SELECT o.id FROM Order o WHERE o.customer.id = :customerId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findOrderIdsByCustomerBefore(@Param("customerId") Long customerId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable limit);
+
+    // Everything an invoice prints, in one round trip
+    @Query("SELECT o FROM Order o JOIN FETCH o.customer " +
+           "LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.book " +
+           "LEFT JOIN FETCH o.shippingAddress " +
+           "WHERE o.id = :id")
+    Optional<Order> findForInvoice(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.customer " +
+           "LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.book " +
+           "LEFT JOIN FETCH o.shippingAddress " +
+           "WHERE o.id IN :ids")
+    List<Order> findAllForInvoiceByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Bulk invoice export, keyset paged by (createdAt, id) oldest first; null cursor for the first page
+    @Query("""
+            SELECT o.id FROM Order o
+            WHERE (:status IS NULL OR o.status = :status)
+              AND (:fromDate IS NULL OR o.createdAt >= :fromDate)
+              AND (:toDate IS NULL OR o.createdAt < :toDate)
+              AND (:sellerId IS NULL OR EXISTS (
+                    SELECT oi.id FROM OrderItem oi WHERE oi.order = o AND oi.seller.id = :sellerId))
+              AND (:afterCreatedAt IS NULL OR o.createdAt > :afterCreatedAt
+                    OR (o.createdAt = :afterCreatedAt AND o.id > :afterId))
+            ORDER BY o.createdAt, o.id
+            """)
+    List<Long> findInvoiceOrderIds(@Param("status") Order.Status status,
+                                   @Param("fromDate") LocalDateTime fromDate,
+                                   @Param("toDate") LocalDateTime toDate,
+                                   @Param("sellerId") Long sellerId,
+                                   @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                   @Param("afterId") Long afterId,
+                                   Pageable limit);
+
+    @Query("SELECT DISTINCT o FROM Order o " +
+           "LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.book " +
+           "LEFT JOIN FETCH o.shippingAddress " +
+           "WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,59 @@
+package com.bookverser.BookVerse.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookverser.BookVerse.entity.OutboundMail;
+
+@Repository
+public interface OutboundMailRepository extends JpaRepository<OutboundMail, Long> {
+
+    @Query("SELECT m FROM OutboundMail m WHERE m.status = com.bookverser.BookVerse.entity.OutboundMail.Status.PENDING " +
+           "AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt, m.id")
+    List<OutboundMail> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Succeeds for exactly one worker: the attempt count doubles as the claim token
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundMail m SET m.attempts = m.attempts + 1, m.nextAttemptAt = :leaseUntil " +
+           "WHERE m.id = :id AND m.attempts = :attempts " +
+           "AND m.status = com.bookverser.BookVerse.entity.OutboundMail.Status.PENDING")
+    int claim(@Param("id") Long id, @Param("attempts") int attempts, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundMail m SET m.status = com.bookverser.BookVerse.entity.OutboundMail.Status.SENT, " +
+           "m.sentAt = :sentAt, m.lastError = null WHERE m.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundMail m SET m.nextAttemptAt = :nextAttemptAt, m.lastError = :error WHERE m.id = :id")
+    int retryAt(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundMail m SET m.status = com.bookverser.BookVerse.entity.OutboundMail.Status.FAILED, " +
+           "m.lastError = :error WHERE m.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    long countByStatus(OutboundMail.Status status);
+
+    @Query("SELECT MIN(m.createdAt) FROM OutboundMail m " +
+           "WHERE m.status = com.bookverser.BookVerse.entity.OutboundMail.Status.PENDING")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboundMail m WHERE m.status = com.bookverser.BookVerse.entity.OutboundMail.Status.SENT " +
+           "AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -4,8 +4,11 @@ import com.bookverser.BookVerse.entity.Review;
 import com.bookverser.BookVerse.entity.Book;
 import com.bookverser.BookVerse.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -15,4 +18,12 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     boolean existsByBookAndUser(Book book, User user);
 
     List<Review> findByBook(Book book);
+
+    // [bookId, count, sum, 1★, 2★, 3★, 4★, 5★] for each reviewed book in the batch
+    @Query("SELECT r.book.id, COUNT(r), SUM(r.rating), " +
+           "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) " +
+           "FROM Review r WHERE r.book.id IN :bookIds GROUP BY r.book.id")
+    List<Object[]> aggregateRatings(@Param("bookIds") Collection<Long> bookIds);
 }
@@ -0,0 +1,42 @@
+package com.bookverser.BookVerse.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.bookverser.BookVerse.entity.StoredBlob;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    // Concurrent uploads of the same bytes both succeed; the row starts unreferenced
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO stored_blobs (hash, extension, size, ref_count, created_at, orphaned_at) " +
+                   "VALUES (:hash, :extension, :size, 0, :now, :now)", nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash, @Param("extension") String extension,
+                       @Param("size") long size, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.refCount = b.refCount + 1, b.orphanedAt = NULL WHERE b.hash = :hash")
+    int retain(@Param("hash") String hash);
+
+    // orphanedAt is assigned first: MySQL evaluates SET clauses left to right
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.orphanedAt = CASE WHEN b.refCount = 1 THEN :now ELSE b.orphanedAt END, " +
+           "b.refCount = b.refCount - 1 WHERE b.hash = :hash AND b.refCount > 0")
+    int release(@Param("hash") String hash, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM StoredBlob b WHERE b.refCount = 0 AND b.orphanedAt < :cutoff ORDER BY b.orphanedAt")
+    List<StoredBlob> findOrphans(@Param("cutoff") LocalDateTime cutoff, Pageable limit);
+
+    // Re-checks the count under the row lock, so a blob retained after findOrphans survives
+    @Modifying
+    @Query("DELETE FROM StoredBlob b WHERE b.hash = :hash AND b.refCount = 0 AND b.orphanedAt < :cutoff")
+    int deleteIfOrphaned(@Param("hash") String hash, @Param("cutoff") LocalDateTime cutoff);
+}
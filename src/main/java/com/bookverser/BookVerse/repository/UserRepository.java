@@ -3,7 +3,12 @@ package com.bookverser.BookVerse.repository;
 import java.util.List;
 import java.util.Optional;
 
+import java.util.Collection;
+import java.util.Set;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bookverser.BookVerse.entity.User;
@@ -12,6 +17,10 @@ import com.bookverser.BookVerse.entity.User;
 public interface UserRepository extends JpaRepository<User, Long> {
 	Optional<User> findByEmail(String email);
 
+	// Login: the user and its roles in one query
+	@Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.email = :email")
+	Optional<User> findWithRolesByEmail(@Param("email") String email);
+
 	Optional<User> findByName(String name);
 	
     
@@ -24,4 +33,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
 		boolean existsByEmail(String email);
 
 		boolean existsByName(String name);
+
+		@Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+		Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,245 @@
+package com.bookverser.BookVerse.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bookverser.BookVerse.entity.Book;
+import com.bookverser.BookVerse.repository.BookRepository;
+
+/**
+ * In-process inverted index over active books (title, author, description, ISBN).
+ * Replaces LIKE '%x%' scans for free-text search with term lookups and
+ * returns book ids ranked by a field-weighted TF-IDF score.
+ *
+ * The index is rebuilt from the database when the application starts and kept
+ * current by BookServiceImpl; changes are applied after the surrounding
+ * transaction commits so rolled-back writes never become searchable.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float AUTHOR_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float ISBN_WEIGHT = 5f;
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private record Document(Long id, String title, String author, String description, String isbn) {
+        static Document of(Book book) {
+            return new Document(book.getId(), book.getTitle(), book.getAuthor(), book.getDescription(), book.getIsbn());
+        }
+    }
+
+    private final BookRepository bookRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (bookId -> weighted term frequency); sorted so the last query term can match as a prefix
+    private NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // bookId -> indexed terms, needed to remove a book's old postings on update/delete
+    private Map<Long, Set<String>> documentTerms = new HashMap<>();
+
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        NavigableMap<String, Map<Long, Float>> newPostings = new TreeMap<>();
+        Map<Long, Set<String>> newDocumentTerms = new HashMap<>();
+
+        Long afterId = Long.MIN_VALUE;
+        List<Book> batch;
+        do {
+            batch = bookRepository.findActiveBooksAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (Book book : batch) {
+                add(Document.of(book), newPostings, newDocumentTerms);
+                afterId = book.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            documentTerms = newDocumentTerms;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Book search index rebuilt: {} books, {} terms in {} ms",
+                newDocumentTerms.size(), newPostings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Index (or re-index) a book once the current transaction commits.
+     * Inactive books are removed from the index.
+     */
+    public void index(Book book) {
+        if (!book.isActive()) {
+            remove(book.getId());
+            return;
+        }
+        Document document = Document.of(book);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeTerms(document.id());
+                add(document, postings, documentTerms);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long bookId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeTerms(bookId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Books matching every term of the query, best score first.
+     * The last term also matches as a prefix so partial words still find results.
+     */
+    public Page<Long> search(String query, Pageable pageable) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        List<Map.Entry<Long, Float>> ranked;
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Map<Long, Float> termScores = score(terms.get(i), i == terms.size() - 1);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, s) -> s + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+            }
+            ranked = new ArrayList<>(scores.entrySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        ranked.sort(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<Long> ids = ranked.subList(from, to).stream().map(Map.Entry::getKey).toList();
+        return new PageImpl<>(ids, pageable, ranked.size());
+    }
+
+    // ----------------- Private Helpers (callers hold the lock) -----------------
+
+    private Map<Long, Float> score(String term, boolean prefix) {
+        int documentCount = Math.max(1, documentTerms.size());
+        Map<String, Map<Long, Float>> matching = prefix
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, true)
+                : (postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of());
+
+        Map<Long, Float> scores = new HashMap<>();
+        for (Map<Long, Float> docs : matching.values()) {
+            float idf = (float) Math.log(1.0 + (double) documentCount / docs.size());
+            docs.forEach((id, tf) -> scores.merge(id, tf * idf, Math::max));
+        }
+        return scores;
+    }
+
+    private static void add(Document document, Map<String, Map<Long, Float>> postings,
+                            Map<Long, Set<String>> documentTerms) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, document.title(), TITLE_WEIGHT);
+        addField(weights, document.author(), AUTHOR_WEIGHT);
+        addField(weights, document.description(), DESCRIPTION_WEIGHT);
+        addField(weights, document.isbn(), ISBN_WEIGHT);
+
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id(), weight));
+        documentTerms.put(document.id(), new HashSet<>(weights.keySet()));
+    }
+
+    private void removeTerms(Long bookId) {
+        Set<String> terms = documentTerms.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(bookId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Float::sum);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -10,13 +10,21 @@ public class CustomUserDetails implements UserDetails {
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private boolean enabled;
 
     public CustomUserDetails(Long id, String email, String password,
                              Collection<? extends GrantedAuthority> authorities) {
+        this(id, email, password, authorities, true);
+    }
+
+    // enabled mirrors User.isActive: a blocked user is rejected at login and by JwtFilter
+    public CustomUserDetails(Long id, String email, String password,
+                             Collection<? extends GrantedAuthority> authorities, boolean enabled) {
         this.id = id;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
+        this.enabled = enabled;
     }
 
     public Long getId() {
@@ -55,7 +63,7 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 
 	public boolean isAdmin() {
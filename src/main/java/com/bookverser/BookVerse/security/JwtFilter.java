@@ -2,17 +2,20 @@
 package com.bookverser.BookVerse.security;
 
 import java.io.IOException;
+import java.util.Collection;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,6 +32,9 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -44,31 +50,42 @@ public class JwtFilter extends OncePerRequestFilter {
         }
 
         final String authHeader = request.getHeader("Authorization");
-        String token = null;
+        Claims claims = null;
         String username = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
+            String token = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(token);
-                logger.info("Extracted username from token: {}", username);
-            } catch (Exception e) {
-                logger.warn("JWT extraction failed: {}", e.getMessage());
+                // Signature and expiry are verified here, once per request
+                claims = jwtUtil.parseClaims(token);
+                username = claims.getSubject();
+                logger.debug("Extracted username from token: {}", username);
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.warn("JWT validation failed: {}", e.getMessage());
             }
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateAccessToken(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                logger.info("Set authentication for user: {} with roles: {}", username, userDetails.getAuthorities());
-            } else {
-                logger.warn("Access token validation failed for username: {}", username);
+            CustomUserDetails userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
+            if (!userDetails.isEnabled()) {
+                // Blocked after the token was issued; updateUserStatus evicts the cached principal
+                logger.debug("Rejected token of disabled user: {}", username);
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setContentType("application/json");
+                response.getWriter().write("{\"error\":\"Account is disabled\"}");
+                return;
             }
+
+            Collection<? extends GrantedAuthority> authorities = jwtUtil.extractAuthorities(claims);
+            if (authorities == null) {
+                authorities = userDetails.getAuthorities();
+            }
+
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            logger.debug("Set authentication for user: {} with roles: {}", username, authorities);
         }
 
         filterChain.doFilter(request, response);
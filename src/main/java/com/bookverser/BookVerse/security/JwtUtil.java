@@ -4,10 +4,12 @@ package com.bookverser.BookVerse.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -19,6 +21,9 @@ public class JwtUtil {
     private final long accessTokenExpirationTime = 1000 * 60 * 60 * 24; // 24 hours
     private final long refreshTokenExpirationTime = 1000 * 60 * 60 * 24 * 30; // 30 days
 
+    // Immutable and thread-safe, so one instance serves every request
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
     public String generateAccessToken(UserDetails userDetails) {
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
@@ -43,12 +48,35 @@ public class JwtUtil {
     }
 
     public String extractUsername(String token) {
-        return getClaims(token).getSubject();
+        return parseClaims(token).getSubject();
+    }
+
+    /**
+     * Verifies the signature and expiry exactly once and returns the claims.
+     * @throws JwtException if the token is malformed, tampered with or expired.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Authorities embedded by generateAccessToken, or null when the token
+     * carries no roles claim (e.g. refresh tokens).
+     */
+    public Collection<? extends GrantedAuthority> extractAuthorities(Claims claims) {
+        List<?> roles = claims.get("roles", List.class);
+        if (roles == null) {
+            return null;
+        }
+        return roles.stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .collect(Collectors.toList());
     }
 
     public boolean validateAccessToken(String token, UserDetails userDetails) {
         try {
-            return extractUsername(token).equals(userDetails.getUsername()) && !isTokenExpired(token);
+            Claims claims = parseClaims(token);
+            return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
@@ -56,22 +84,13 @@ public class JwtUtil {
 
     public boolean validateRefreshToken(String token) {
         try {
-            getClaims(token); // Parse to verify signature and expiry
-            return !isTokenExpired(token);
+            return !isExpired(parseClaims(token));
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date());
-    }
-
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 }
@@ -0,0 +1,264 @@
+package com.bookverser.BookVerse.security;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bookverser.BookVerse.dto.LoginThrottleStatsDto;
+import com.bookverser.BookVerse.exception.TooManyAttemptsException;
+
+/**
+ * In-memory brute-force throttle for password and OTP checks.
+ *
+ * Every attempt is counted against the email and the client IP in a sliding window
+ * (the previous fixed window weighted by how much of it still overlaps, plus the current
+ * one). Over either limit the attempt is rejected with {@link TooManyAttemptsException}
+ * before the user is loaded or BCrypt runs. A success forgets the email's attempts and
+ * gives the attempt back to the IP, so an address is only charged for failures and users
+ * sharing one NAT or proxy do not lock each other out. Counters are updated with a single CAS;
+ * the key-to-counter maps are split into stripes, each a small LRU under its own lock,
+ * so memory stays within {@code max-keys} and only cold keys are dropped. State is per
+ * instance and starts empty on restart.
+ */
+@Component
+public class LoginThrottle {
+
+    public enum Scope {
+        LOGIN("Too many login attempts"),
+        PASSWORD_RESET("Too many password reset attempts");
+
+        private final String message;
+
+        Scope(String message) {
+            this.message = message;
+        }
+    }
+
+    private static final int STRIPES = 16;
+    private static final int MAX_COUNT = 0xFFFF;
+
+    private final long windowMillis;
+    private final int[] emailLimits = new int[Scope.values().length];
+    private final int[] ipLimits = new int[Scope.values().length];
+    private final int maxKeys;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final LongAdder[] rejectedByEmail = new LongAdder[Scope.values().length];
+    private final LongAdder[] rejectedByIp = new LongAdder[Scope.values().length];
+    private final LongAdder evictions = new LongAdder();
+
+    public LoginThrottle(@Value("${bookverse.auth.throttle.window-seconds:900}") long windowSeconds,
+                         @Value("${bookverse.auth.throttle.login-per-email:10}") int loginPerEmail,
+                         @Value("${bookverse.auth.throttle.login-per-ip:100}") int loginPerIp,
+                         @Value("${bookverse.auth.throttle.reset-per-email:5}") int resetPerEmail,
+                         @Value("${bookverse.auth.throttle.reset-per-ip:30}") int resetPerIp,
+                         @Value("${bookverse.auth.throttle.max-keys:100000}") int maxKeys) {
+        this.windowMillis = Math.max(1, windowSeconds) * 1000;
+        emailLimits[Scope.LOGIN.ordinal()] = loginPerEmail;
+        ipLimits[Scope.LOGIN.ordinal()] = loginPerIp;
+        emailLimits[Scope.PASSWORD_RESET.ordinal()] = resetPerEmail;
+        ipLimits[Scope.PASSWORD_RESET.ordinal()] = resetPerIp;
+        this.maxKeys = Math.max(STRIPES, maxKeys);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(this.maxKeys / STRIPES);
+        }
+        for (int i = 0; i < rejectedByEmail.length; i++) {
+            rejectedByEmail[i] = new LongAdder();
+            rejectedByIp[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Counts one attempt for {@code email} and {@code ip}, or throws if either is over its limit.
+     * The IP is checked first, so spraying many emails from one address is stopped there.
+     */
+    public void acquire(Scope scope, String email, String ip) {
+        acquire(scope, email, ip, System.currentTimeMillis());
+    }
+
+    void acquire(Scope scope, String email, String ip, long now) {
+        if (ip != null) {
+            long wait = window(ipKey(scope, ip)).tryAcquire(now, ipLimits[scope.ordinal()]);
+            if (wait > 0) {
+                rejectedByIp[scope.ordinal()].increment();
+                throw new TooManyAttemptsException(scope.message, toSeconds(wait));
+            }
+        }
+        if (email != null) {
+            long wait = window(emailKey(scope, email)).tryAcquire(now, emailLimits[scope.ordinal()]);
+            if (wait > 0) {
+                rejectedByEmail[scope.ordinal()].increment();
+                throw new TooManyAttemptsException(scope.message, toSeconds(wait));
+            }
+        }
+    }
+
+    /** Forgets the email's attempts after it succeeded and gives the attempt back to the IP. */
+    public void succeeded(Scope scope, String email, String ip) {
+        succeeded(scope, email, ip, System.currentTimeMillis());
+    }
+
+    void succeeded(Scope scope, String email, String ip, long now) {
+        if (email != null) {
+            String key = emailKey(scope, email);
+            stripe(key).remove(key);
+        }
+        if (ip != null) {
+            String key = ipKey(scope, ip);
+            Window window = stripe(key).find(key);
+            if (window != null) {
+                window.release(now);
+            }
+        }
+    }
+
+    public LoginThrottleStatsDto stats() {
+        long tracked = 0;
+        for (Stripe stripe : stripes) {
+            tracked += stripe.size();
+        }
+        return new LoginThrottleStatsDto(
+                rejectedByEmail[Scope.LOGIN.ordinal()].sum(),
+                rejectedByIp[Scope.LOGIN.ordinal()].sum(),
+                rejectedByEmail[Scope.PASSWORD_RESET.ordinal()].sum(),
+                rejectedByIp[Scope.PASSWORD_RESET.ordinal()].sum(),
+                tracked,
+                maxKeys,
+                evictions.sum());
+    }
+
+    // ----------------- Private Helpers -----------------
+
+    private static String emailKey(Scope scope, String email) {
+        return scope.ordinal() + ":e:" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipKey(Scope scope, String ip) {
+        return scope.ordinal() + ":i:" + ip;
+    }
+
+    private Stripe stripe(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private Window window(String key) {
+        return stripe(key).get(key);
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    /** One stripe of the key space: an access-ordered map that drops its least recently used key when full. */
+    private final class Stripe {
+
+        private final LinkedHashMap<String, Window> windows;
+
+        Stripe(int capacity) {
+            this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                    boolean full = size() > capacity;
+                    if (full) {
+                        evictions.increment();
+                    }
+                    return full;
+                }
+            };
+        }
+
+        synchronized Window get(String key) {
+            return windows.computeIfAbsent(key, k -> new Window());
+        }
+
+        synchronized Window find(String key) {
+            return windows.get(key);
+        }
+
+        synchronized void remove(String key) {
+            windows.remove(key);
+        }
+
+        synchronized int size() {
+            return windows.size();
+        }
+    }
+
+    /**
+     * Sliding-window counter packed into one long: window index (high 32 bits), attempts in
+     * that window (next 16) and attempts in the window before it (low 16).
+     */
+    private final class Window {
+
+        private final AtomicLong state = new AtomicLong();
+
+        /** Counts one attempt and returns 0, or returns the millis until one would fit under {@code limit}. */
+        long tryAcquire(long now, int limit) {
+            long index = now / windowMillis;
+            long offset = now % windowMillis;
+            double previousWeight = 1.0 - (double) offset / windowMillis;
+            while (true) {
+                long current = state.get();
+                long currentIndex = current >>> 32;
+                long count = (current >>> 16) & MAX_COUNT;
+                long previous = current & MAX_COUNT;
+                if (currentIndex != index) {
+                    previous = currentIndex + 1 == index ? count : 0;
+                    count = 0;
+                }
+                if (previous * previousWeight + count >= limit) {
+                    return millisUntilBelow(limit, offset, count, previous);
+                }
+                long next = (index << 32) | (Math.min(count + 1, MAX_COUNT) << 16) | previous;
+                if (state.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        /** Takes back one attempt counted at or shortly before {@code now}. */
+        void release(long now) {
+            long index = now / windowMillis;
+            while (true) {
+                long current = state.get();
+                long currentIndex = current >>> 32;
+                long count = (current >>> 16) & MAX_COUNT;
+                long previous = current & MAX_COUNT;
+                long next;
+                if (currentIndex == index && count > 0) {
+                    next = current - (1L << 16);
+                } else if (currentIndex + 1 == index && count > 0) {
+                    // Counted just before the rollover: it is now the fading part
+                    next = (index << 32) | (count - 1);
+                } else {
+                    return;
+                }
+                if (state.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Earliest moment the weighted count drops below {@code limit}: later in this window as
+         * the previous one fades out, or else in the next one, where this window's attempts are
+         * the part that fades.
+         */
+        private long millisUntilBelow(int limit, long offset, long count, long previous) {
+            if (count < limit) {
+                // previous * (1 - t / window) + count < limit
+                long at = (long) (windowMillis * (1.0 - (double) (limit - count) / previous)) + 1;
+                return Math.max(1, at - offset);
+            }
+            // count * (1 - t / window) < limit, t measured from the next rollover
+            long at = limit > 0 ? (long) (windowMillis * (1.0 - (double) limit / count)) + 1 : windowMillis;
+            return windowMillis - offset + at;
+        }
+    }
+}
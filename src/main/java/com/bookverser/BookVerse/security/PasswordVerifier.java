@@ -0,0 +1,73 @@
+package com.bookverser.BookVerse.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.bookverser.BookVerse.exception.ServiceBusyException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Checks login passwords on a dedicated pool, off the request threads.
+ *
+ * BCrypt is deliberately slow, so a burst of logins would otherwise occupy every Tomcat
+ * worker. At most {@code bookverse.auth.hash-threads} checks run at once and up to
+ * {@code bookverse.auth.hash-queue-capacity} wait; beyond that the login is refused with
+ * {@link ServiceBusyException} (503 + Retry-After) rather than queued without bound.
+ */
+@Component
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor hasher;
+
+    // Compared against when the email is unknown, so both cases take the same time
+    private final String unknownUserHash;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${bookverse.auth.hash-threads:0}") int hashThreads,
+                            @Value("${bookverse.auth.hash-queue-capacity:100}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        // 0 = half the cores, leaving the rest to the other endpoints
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hasher = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.hasher.allowCoreThreadTimeOut(true);
+        this.unknownUserHash = passwordEncoder.encode("unknown-user-placeholder");
+    }
+
+    /**
+     * Completes with whether {@code rawPassword} matches {@code encodedPassword}; a null
+     * hash (unknown user) never matches. Throws ServiceBusyException if the queue is full.
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                boolean matches = passwordEncoder.matches(rawPassword,
+                        encodedPassword != null ? encodedPassword : unknownUserHash);
+                return matches && encodedPassword != null;
+            }, hasher);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Too many logins in progress, please retry shortly");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hasher.shutdownNow();
+    }
+}
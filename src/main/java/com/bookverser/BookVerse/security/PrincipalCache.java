@@ -0,0 +1,108 @@
+package com.bookverser.BookVerse.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.bookverser.BookVerse.dto.PrincipalCacheStatsDto;
+
+/**
+ * Bounded, TTL-evicted cache of authenticated principals keyed by email.
+ * Lets JwtFilter build the SecurityContext without hitting the users table
+ * on every request. Anything that changes what a principal may do (roles,
+ * block/unblock, password) must call {@link #invalidate(String)}.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Entry(CustomUserDetails principal, long expiresAt) {}
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    // Bumped on every invalidation so a load racing with it is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public PrincipalCache(@Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+    }
+
+    public CustomUserDetails get(String email, Function<String, CustomUserDetails> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.increment();
+            return entry.principal();
+        }
+        misses.increment();
+
+        long startGeneration = generation.get();
+        CustomUserDetails loaded = loader.apply(email);
+        // The password hash is only needed at login, never for token-authenticated requests
+        CustomUserDetails principal = new CustomUserDetails(
+                loaded.getId(), loaded.getUsername(), null, loaded.getAuthorities(), loaded.isEnabled());
+
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        if (generation.get() == startGeneration) {
+            entries.put(email, new Entry(principal, now + ttlMillis));
+        }
+        return principal;
+    }
+
+    public void invalidate(String email) {
+        generation.incrementAndGet();
+        if (email != null) {
+            entries.remove(email);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public PrincipalCacheStatsDto stats() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return new PrincipalCacheStatsDto(
+                hitCount,
+                lookups - hitCount,
+                lookups > 0 ? (double) hitCount / lookups : 0,
+                evictions.sum(),
+                entries.size(),
+                maxSize);
+    }
+
+    // Drop expired entries first; if still full, trim arbitrary entries down to 90% of capacity
+    private void evict(long now) {
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAt() <= now;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+}
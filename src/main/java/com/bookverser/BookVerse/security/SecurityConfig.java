@@ -1,5 +1,6 @@
 package com.bookverser.BookVerse.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,6 +14,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
@@ -38,6 +41,10 @@ public class SecurityConfig {
             		"/api/categories/**"))
             
             .authorizeHttpRequests(auth -> auth
+                // An async dispatch resumes a request that was already authorized; JwtFilter
+                // (once per request) does not run again, so it carries no authentication
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers("/auth/login", "/auth/register","/auth/forgot-password","/auth/reset-password").permitAll()
                 .requestMatchers("/auth/register-admin").hasRole("ADMIN")
@@ -80,8 +87,9 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    // Existing hashes keep their own cost; the strength applies to newly encoded passwords
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${bookverse.auth.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
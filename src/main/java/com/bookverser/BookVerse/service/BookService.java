@@ -4,6 +4,9 @@ import com.bookverser.BookVerse.dto.CreateBookRequestDTO;
 import com.bookverser.BookVerse.dto.UpdateBookRequestDTO;
 import com.bookverser.BookVerse.dto.UpdateStockRequestDTO;
 import com.bookverser.BookVerse.dto.BookDto;
+import com.bookverser.BookVerse.dto.BookFilterDTO;
+import com.bookverser.BookVerse.dto.BookPageDto;
+import com.bookverser.BookVerse.dto.BulkImportJobDto;
 
 import com.bookverser.BookVerse.dto.SearchBooksRequestDTO;
 import org.springframework.data.domain.Page;
@@ -12,7 +15,9 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * BookService Interface
@@ -35,15 +40,14 @@ public interface BookService {
 
     /**
      * Retrieve a paginated list of available books (BOOK:PUBLIC:GET-ALL).
-     * Supports pagination, sorting, and filtering by category, author, price range.
+     * Supports pagination, sorting, and filtering by category, author prefix, price range,
+     * condition, seller, active/featured flags and stock > 0; unset filters are left out of the query.
+     * @param filter Optional filters (active defaults to true).
      * @param pageable Pagination and sorting parameters.
-     * @param category Filter by category ID (optional).
-     * @param author Filter by author name (optional).
-     * @param minPrice Minimum price filter (optional).
-     * @param maxPrice Maximum price filter (optional).
-     * @return Page<BookDTO> of in-stock books.
+     * @return Page<BookDTO> of matching books.
+     * @throws InvalidRequestException if minPrice is greater than maxPrice (400).
      */
-    Page<BookDto> getAllBooks(Pageable pageable, String category, String author, BigDecimal minPrice, BigDecimal maxPrice);
+    Page<BookDto> getAllBooks(BookFilterDTO filter, Pageable pageable);
 
 
     /**
@@ -55,6 +59,15 @@ public interface BookService {
      */
     BookDto getBookById(Long bookId);
 
+    /**
+     * Last modification time of a book, read without loading the entity.
+     * Used to answer conditional GETs on the book detail.
+     * @param bookId ID of the book.
+     * @return the book's updatedAt.
+     * @throws ResourceNotFoundException if book not found (404).
+     */
+    LocalDateTime getBookVersion(Long bookId);
+
     /**
      * Update a book's details (BOOK:SELLER:UPDATE-BOOK).
      * Only book owner (seller) or admin can update. ISBN cannot be updated.
@@ -84,6 +97,16 @@ public interface BookService {
      */
     List<BookDto> searchBooks(String title, String author, String categoryName, String isbn);
 
+    /**
+     * Full-text search over title, author, description and ISBN (BOOK:PUBLIC:SEARCH).
+     * Served from the in-memory search index, ranked by relevance.
+     * @param query Free-text query; the last word also matches as a prefix.
+     * @param pageable Page number and size (sorting is by relevance).
+     * @return Page<BookDTO> of matching active books.
+     * @throws InvalidRequestException if the query is blank (400).
+     */
+    Page<BookDto> fullTextSearch(String query, Pageable pageable);
+
     /**
      * Get books by category (BOOK:PUBLIC:GET-BY-CATEGORY).
      * @param categoryId ID of the category.
@@ -106,26 +129,58 @@ public interface BookService {
 
     /**
      * Upload a book image (BOOK:SELLER:UPLOAD-IMAGE).
-     * Validates file format and book existence.
+     * Book owner or admin only. The format is checked from the file's magic bytes (JPEG or PNG).
+     * The book points at the original right away; resized variants are generated in the
+     * background and then replace imageUrl and fill thumbnailUrl.
      * @param bookId ID of the book.
      * @param file Image file to upload.
      * @return Updated BookDTO with new image URL.
      * @throws ResourceNotFoundException if book not found (404).
-     * @throws InvalidFileFormatException if file format is invalid (400).
+     * @throws UnauthorizedException if the caller is neither the seller nor an admin (403).
+     * @throws InvalidRequestException if the file is not a supported image or is too large (400).
      * @throws IOException for file processing errors.
      */
     BookDto uploadImage(Long bookId, MultipartFile file) throws IOException;
 
     /**
      * Bulk import books from a file (BOOK:ADMIN:BULK-IMPORT).
-     * Admin-only operation. Validates file format and content, checks for duplicate ISBNs.
+     * Admin-only operation. The file is spooled to disk and imported by a background job;
+     * invalid rows and duplicate ISBNs (in the file or already in the DB) are reported per
+     * row instead of failing the whole import.
      * @param file File containing book data (e.g., CSV/JSON).
+     * @return BulkImportJobDto of the queued job (poll it with getBulkImportJob).
      * @throws UnauthorizedException if user is not admin (401).
-     * @throws DuplicateIsbnException if duplicate ISBNs found (409).
-     * @throws MethodArgumentNotValidException if file content is invalid (400).
-     * @throws IOException for file processing errors.
+     * @throws IllegalArgumentException if the file format is not supported (400).
+     * @throws IOException if the upload cannot be spooled.
+     */
+    BulkImportJobDto bulkImportBooks(MultipartFile file) throws IOException;
+
+    /**
+     * Get progress of a bulk import job (BOOK:ADMIN:BULK-IMPORT-STATUS).
+     * @param jobId Job id returned by bulkImportBooks.
+     * @param errorPage Page of the error report to include.
+     * @param errorSize Size of the error report page.
+     * @return BulkImportJobDto with rows processed/failed, rows/sec and errors.
+     * @throws ResourceNotFoundException if job not found (404).
      */
-    void bulkImportBooks(MultipartFile file) throws IOException;
+    BulkImportJobDto getBulkImportJob(String jobId, int errorPage, int errorSize);
+
+    /**
+     * Resume a failed or interrupted bulk import job from its last committed chunk.
+     * @param jobId Job id returned by bulkImportBooks.
+     * @return BulkImportJobDto of the re-queued job.
+     * @throws ResourceNotFoundException if job not found (404).
+     * @throws InvalidRequestException if the job is not resumable (400).
+     */
+    BulkImportJobDto resumeBulkImportJob(String jobId);
+
+    /**
+     * Rebuild every book's rating count, sum, average and star histogram from its reviews
+     * (BOOK:ADMIN:RECONCILE-RATINGS). Also runs nightly.
+     * @return booksChecked and booksCorrected.
+     * @throws UnauthorizedException if user is not admin (401).
+     */
+    Map<String, Long> reconcileRatings();
 
     /**
      * Get books by seller (BOOK:SELLER:GET-MY-BOOKS).
@@ -149,17 +204,29 @@ public interface BookService {
 
     List<BookDto> getFeaturedBooks();
 
+    /**
+     * Featured books as pre-serialized JSON from the in-memory storefront snapshot (BOOK:PUBLIC:FEATURED).
+     */
+    byte[] getFeaturedBooksJson();
+
+    /**
+     * Newest active books as pre-serialized JSON from the in-memory storefront snapshot (BOOK:PUBLIC:NEW-ARRIVALS).
+     */
+    byte[] getNewArrivalsJson();
+
 
 
     /**
-     * Filter books by category, price range, and location
+     * Filter active books by category, price range, and seller location, one page at a time.
+     * Location matches the city of the seller's primary address.
      */
-    List<BookDto> filterBooks(String category, BigDecimal minPrice, BigDecimal maxPrice, String location);
+    Page<BookDto> filterBooks(String category, BigDecimal minPrice, BigDecimal maxPrice, String location, Pageable pageable);
 
     /**
-     * Sort books by latest, price, or rating
+     * Sort active books by latest, priceAsc, priceDesc or rating, one keyset page at a time.
+     * Pass null cursor values for the first page, then the nextCursorValue/nextCursorId of the previous page.
      */
-    List<BookDto> sortBooks(String sortBy);
+    BookPageDto sortBooks(String sortBy, String cursorValue, Long cursorId, int size);
 
 	List<BookDto> getBooksByCategory(Long categoryId);
     
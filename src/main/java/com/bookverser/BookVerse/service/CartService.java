@@ -46,10 +46,13 @@ public interface CartService {
     CartResponseDto clearCart(Long customerId);
 
     /**
-     * Checkout the cart and create an order.
-     * @param buyerId ID of the buyer.
-     * @param request CheckoutRequest containing payment method.
-     * @return Order details or confirmation (could be extended with OrderDto).
+     * Checkout the cart and create a single order containing every cart item.
+     * Stock for all items is reserved atomically; the cart is emptied on success.
+     * @param customerId ID of the buyer.
+     * @param request CheckoutRequest containing payment method and shipping address.
+     * @return OrderResponseDto of the created order.
+     * @throws EmptyCartException if the cart has no items.
+     * @throws InsufficientStockException if any item is out of stock (nothing is ordered).
      */
-    Object checkoutCart(Long customerId, CheckoutRequest request);
+    OrderResponseDto checkoutCart(Long customerId, CheckoutRequest request);
 }
@@ -2,6 +2,7 @@ package com.bookverser.BookVerse.service;
 
 import java.util.List;
 
+import com.bookverser.BookVerse.cache.CachedJson;
 import com.bookverser.BookVerse.entity.Category;
 
 public interface CategoryService {
@@ -11,6 +12,11 @@ public interface CategoryService {
 
     Category getCategoryById(Long id);
 
+    // Cached, pre-serialized responses with strong ETags
+    CachedJson getAllCategoriesJson();
+
+    CachedJson getCategoryJson(Long id);
+
     Category updateCategory(Long id, Category updatedCategory);
 
     void deleteCategory(Long id); // soft delete
@@ -1,19 +1,27 @@
 package com.bookverser.BookVerse.service;
 
 
+import com.bookverser.BookVerse.dto.AdminOrderResponseDto;
 import com.bookverser.BookVerse.dto.BulkOrderStatusUpdateRequest;
-
+import com.bookverser.BookVerse.dto.OrderDTO;
+import com.bookverser.BookVerse.dto.OrderHistoryPageDto;
 import com.bookverser.BookVerse.dto.OrderResponseDto;
 import com.bookverser.BookVerse.dto.OrderSummaryDto;
+import com.bookverser.BookVerse.dto.PlaceOrderRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface OrderService {
-    // Customer
-    List<OrderResponseDto> getMyOrders(String email);
+    // Customer: keyset paged, pass null cursor values for the first page
+    OrderHistoryPageDto getMyOrders(Long customerId, LocalDateTime cursorCreatedAt, Long cursorId, int size);
 
     // Admin
     Page<OrderSummaryDto> getAllOrders(String status,
@@ -25,21 +33,17 @@ public interface OrderService {
     
     List<OrderResponseDto> bulkUpdateOrderStatus(BulkOrderStatusUpdateRequest request);
 
-
-import com.bookverser.BookVerse.dto.AdminOrderResponseDto;
-import com.bookverser.BookVerse.dto.OrderDTO;
-import com.bookverser.BookVerse.dto.OrderResponseDto;
-import com.bookverser.BookVerse.dto.PlaceOrderRequest;
-
-public interface OrderService {
 	public OrderResponseDto placeOrder(PlaceOrderRequest request);
 	public OrderResponseDto getOrderById(Long orderId);
 	public  AdminOrderResponseDto getOrderByAdminId(Long orderId);
 
 	public OrderResponseDto requestReturn(Long orderId);
+	// Completes with the stored PDF once rendered; rendering happens off the calling thread
+	public CompletableFuture<Path> generateInvoicePdf(Long orderId);
 
-	public OrderResponseDto requestReturn(Long orderId);
-	public byte[] generateInvoicePdf(Long orderId);
+	// Admin: writes a ZIP of the invoices of all matching orders to out; null filters match everything
+	void exportInvoices(String status, LocalDate fromDate, LocalDate toDate, Long sellerId, OutputStream out)
+			throws IOException;
 
 	 OrderDTO updateOrderStatus(Long orderId, String status);
 
@@ -1,5 +1,6 @@
 package com.bookverser.BookVerse.service;
 
+import com.bookverser.BookVerse.dto.RatingSummaryDto;
 import com.bookverser.BookVerse.dto.ReviewDTO;
 import java.util.List;
 
@@ -9,5 +10,7 @@ public interface ReviewService {
 
     List<ReviewDTO> getReviewsByBookId(Long bookId);
 
+    RatingSummaryDto getRatingSummary(Long bookId);
+
     void reportReview(Long reviewId, Long userId);
 }
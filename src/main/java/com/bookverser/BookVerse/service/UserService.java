@@ -12,6 +12,7 @@ import java.io.IOException;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 import com.bookverser.BookVerse.dto.ChangePasswordRequest;
@@ -25,7 +26,8 @@ public interface UserService {
     String registerAdmin(SignupDto signupDto);
     User findByEmail(String email);
 //    LoginResponse processLogin(LoginRequest loginRequest, String token);
-    LoginResponse processLogin(LoginRequest loginRequest, String accessToken, String refreshToken);
+    /** Verifies the credentials off the request thread; fails with BadCredentialsException. */
+    CompletableFuture<LoginResponse> login(LoginRequest loginRequest);
     UserDto getUserByEmail(String email);
     UserDto updateUserProfile(String email, UpdateProfileRequest request);
  // Change password
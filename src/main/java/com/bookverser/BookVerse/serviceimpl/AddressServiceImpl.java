@@ -3,13 +3,14 @@ package com.bookverser.BookVerse.serviceimpl;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.bookverser.BookVerse.dto.AddressRequestDto;
 import com.bookverser.BookVerse.dto.AddressResponseDto;
 import com.bookverser.BookVerse.entity.Address;
 import com.bookverser.BookVerse.entity.User;
+import com.bookverser.BookVerse.mapper.AddressMapper;
 import com.bookverser.BookVerse.repository.AddressRepository;
 import com.bookverser.BookVerse.repository.UserRepository;
 import com.bookverser.BookVerse.service.AddressService;
@@ -19,16 +20,20 @@ public class AddressServiceImpl implements AddressService {
 
 	 private final AddressRepository addressRepository;
 	    private final UserRepository userRepository;
-	    private final ModelMapper modelMapper;
+	    private final AddressMapper addressMapper;
+	    private final SellerLocations sellerLocations;
 
 	    public AddressServiceImpl(AddressRepository addressRepository,
 	                              UserRepository userRepository,
-	                              ModelMapper modelMapper) {
+	                              AddressMapper addressMapper,
+	                              SellerLocations sellerLocations) {
 	        this.addressRepository = addressRepository;
 	        this.userRepository = userRepository;
-	        this.modelMapper = modelMapper;
+	        this.addressMapper = addressMapper;
+	        this.sellerLocations = sellerLocations;
 	    }
 	@Override
+	@Transactional
 	public AddressResponseDto addAddress(String userEmail, AddressRequestDto dto) {
 		 User user = userRepository.findByEmail(userEmail)
 	                .orElseThrow(() -> new RuntimeException("User not found"));
@@ -40,10 +45,12 @@ public class AddressServiceImpl implements AddressService {
 	        address.setUser(user);
 
 	        Address saved = addressRepository.save(address);
-	        return modelMapper.map(saved, AddressResponseDto.class);
+	        sellerLocations.refresh(user.getId());
+	        return addressMapper.toDto(saved);
 	}
 
 	@Override
+	@Transactional
 	public AddressResponseDto updateAddress(String userEmail, Long addressId, AddressRequestDto dto) {
 		User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -55,10 +62,13 @@ public class AddressServiceImpl implements AddressService {
         address.setState(dto.getState());
         address.setCountry(dto.getCountry());
 
-        return modelMapper.map(addressRepository.save(address), AddressResponseDto.class);
+        Address saved = addressRepository.save(address);
+        sellerLocations.refresh(user.getId());
+        return addressMapper.toDto(saved);
 	}
 
 	@Override
+	@Transactional
 	public void deleteAddress(String userEmail, Long addressId) {
 		User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -67,6 +77,7 @@ public class AddressServiceImpl implements AddressService {
                 .orElseThrow(() -> new RuntimeException("Address not found"));
 
         addressRepository.delete(address);
+        sellerLocations.refresh(user.getId());
 		
 	}
 
@@ -77,7 +88,7 @@ public class AddressServiceImpl implements AddressService {
 
 	        return addressRepository.findByUser(user)
 	                .stream()
-	                .map(address -> modelMapper.map(address, AddressResponseDto.class))
+	                .map(addressMapper::toDto)
 	                .collect(Collectors.toList());
 	    
 	}
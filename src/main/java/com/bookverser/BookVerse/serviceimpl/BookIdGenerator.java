@@ -0,0 +1,21 @@
+package com.bookverser.BookVerse.serviceimpl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Book ids are assigned by the application (no DB identity column).
+ * Ids are derived from the clock (millis * 1000) but never repeat, even when
+ * many books are created within the same millisecond during bulk import.
+ */
+@Component
+public class BookIdGenerator {
+
+    private final AtomicLong lastId = new AtomicLong();
+
+    public long nextId() {
+        long candidate = System.currentTimeMillis() * 1000;
+        return lastId.updateAndGet(last -> Math.max(last + 1, candidate));
+    }
+}
@@ -0,0 +1,131 @@
+package com.bookverser.BookVerse.serviceimpl;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bookverser.BookVerse.entity.Book;
+import com.bookverser.BookVerse.repository.BookRepository;
+import com.bookverser.BookVerse.repository.ReviewRepository;
+import com.bookverser.BookVerse.storefront.StorefrontSnapshot;
+
+/**
+ * Rebuilds the denormalized rating columns on Book from the reviews table.
+ *
+ * Walks the catalog in id order, one transaction per batch, and only writes books whose
+ * aggregates drifted. Each write is a compare-and-set on the values read, so a review added
+ * concurrently is never overwritten; that book is simply left for the next run.
+ */
+@Component
+public class BookRatingReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookRatingReconciler.class);
+
+    private final BookRepository bookRepository;
+    private final ReviewRepository reviewRepository;
+    private final StorefrontSnapshot storefrontSnapshot;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public BookRatingReconciler(BookRepository bookRepository,
+                                ReviewRepository reviewRepository,
+                                StorefrontSnapshot storefrontSnapshot,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${bookverse.ratings.reconcile-batch-size:1000}") int batchSize) {
+        this.bookRepository = bookRepository;
+        this.reviewRepository = reviewRepository;
+        this.storefrontSnapshot = storefrontSnapshot;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(cron = "${bookverse.ratings.reconcile-cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        reconcileAll();
+    }
+
+    /** @return map with booksChecked and booksCorrected */
+    public Map<String, Long> reconcileAll() {
+        long checked = 0;
+        long corrected = 0;
+        Long afterId = Long.MIN_VALUE;
+        while (true) {
+            Long from = afterId;
+            long[] batch = transactionTemplate.execute(status -> reconcileBatch(from));
+            if (batch[0] == 0) {
+                break;
+            }
+            checked += batch[0];
+            corrected += batch[1];
+            afterId = batch[2];
+        }
+        if (corrected > 0) {
+            logger.warn("Rating reconciliation corrected {} of {} books", corrected, checked);
+        } else {
+            logger.info("Rating reconciliation checked {} books, none drifted", checked);
+        }
+        return Map.of("booksChecked", checked, "booksCorrected", corrected);
+    }
+
+    // returns {books in batch, books corrected, last id}
+    private long[] reconcileBatch(Long afterId) {
+        List<Book> books = bookRepository.findBooksAfter(afterId, PageRequest.of(0, batchSize));
+        if (books.isEmpty()) {
+            return new long[] {0, 0, 0};
+        }
+
+        Map<Long, Object[]> aggregates = new HashMap<>();
+        for (Object[] row : reviewRepository.aggregateRatings(books.stream().map(Book::getId).toList())) {
+            aggregates.put((Long) row[0], row);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        long corrected = 0;
+        for (Book book : books) {
+            Object[] row = aggregates.get(book.getId());
+            long count = row == null ? 0 : toLong(row[1]);
+            long sum = row == null ? 0 : toLong(row[2]);
+            long[] stars = new long[5];
+            for (int i = 0; i < 5 && row != null; i++) {
+                stars[i] = toLong(row[3 + i]);
+            }
+            if (matches(book, count, sum, stars)) {
+                continue;
+            }
+            double average = count == 0 ? 0 : (double) sum / count;
+            if (bookRepository.replaceRatings(book.getId(), count, sum, average,
+                    stars[0], stars[1], stars[2], stars[3], stars[4],
+                    book.getRatingCount(), book.getRatingSum(), now) > 0) {
+                corrected++;
+                storefrontSnapshot.bookChanged(book);
+            }
+        }
+        return new long[] {books.size(), corrected, books.get(books.size() - 1).getId()};
+    }
+
+    private static boolean matches(Book book, long count, long sum, long[] stars) {
+        return book.getRatingCount() == count
+                && book.getRatingSum() == sum
+                && book.getOneStarCount() == stars[0]
+                && book.getTwoStarCount() == stars[1]
+                && book.getThreeStarCount() == stars[2]
+                && book.getFourStarCount() == stars[3]
+                && book.getFiveStarCount() == stars[4]
+                // the incremental path may round the average (MySQL decimal division)
+                && Math.abs(book.getAverageRating() - (count == 0 ? 0 : (double) sum / count)) < 1e-3;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+}
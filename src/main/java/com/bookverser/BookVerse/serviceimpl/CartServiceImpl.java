@@ -3,18 +3,18 @@ package com.bookverser.BookVerse.serviceimpl;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.bookverser.BookVerse.config.ModelMapperConfig;
 import com.bookverser.BookVerse.dto.AddToCartRequest;
 import com.bookverser.BookVerse.dto.CartItemDto;
 import com.bookverser.BookVerse.dto.CartResponseDto;
 import com.bookverser.BookVerse.dto.CheckoutRequest;
-import com.bookverser.BookVerse.dto.OrderDTO;
+import com.bookverser.BookVerse.dto.OrderResponseDto;
 import com.bookverser.BookVerse.dto.UpdateCartRequest;
 import com.bookverser.BookVerse.entity.Address;
 import com.bookverser.BookVerse.entity.Book;
@@ -25,8 +25,11 @@ import com.bookverser.BookVerse.entity.OrderItem;
 import com.bookverser.BookVerse.entity.User;
 import com.bookverser.BookVerse.exception.BookNotFoundException;
 import com.bookverser.BookVerse.exception.CartItemNotFoundException;
+import com.bookverser.BookVerse.exception.EmptyCartException;
 import com.bookverser.BookVerse.exception.InvalidQuantityException;
 import com.bookverser.BookVerse.exception.UnauthorizedException;
+import com.bookverser.BookVerse.mapper.CartItemMapper;
+import com.bookverser.BookVerse.mapper.OrderMapper;
 import com.bookverser.BookVerse.repository.AddressRepository;
 import com.bookverser.BookVerse.repository.BookRepository;
 import com.bookverser.BookVerse.repository.CartRepository;
@@ -44,9 +47,10 @@ public class CartServiceImpl implements CartService {
     private final CartRepository cartRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
-    private final ModelMapperConfig modelMapperConfig;
     private final AddressRepository addressRepository;
-    private final ModelMapper modelMapper;
+    private final CartItemMapper cartItemMapper;
+    private final OrderMapper orderMapper;
+    private final StockReservation stockReservation;
 
     /**
      * Add book to cart
@@ -115,7 +119,7 @@ public class CartServiceImpl implements CartService {
         response.put("customerId", customer.getId());
         response.put("totalPrice", cart.getTotalPrice());
         response.put("items", cart.getCartItems().stream()
-                .map(item -> modelMapper.map(item, CartItemDto.class))
+                .map(cartItemMapper::toDto)
                 .toList());
 
         return response;
@@ -147,18 +151,7 @@ public class CartServiceImpl implements CartService {
         updateCartTotal(cart);
         cartRepository.save(cart);
 
-        BigDecimal price = book.getPrice();
-        BigDecimal total = price.multiply(BigDecimal.valueOf(cartItem.getQuantity()));
-
-        return CartItemDto.builder()
-                .id(cartItem.getId())
-                .bookId(book.getId())
-                .author(book.getAuthor())
-                .title(book.getTitle())
-                .quantity(cartItem.getQuantity())
-                .price(price)
-                .total(total)
-                .build();
+        return cartItemMapper.toDto(cartItem);
     }
 
     /**
@@ -195,10 +188,12 @@ public class CartServiceImpl implements CartService {
     }
 
     /**
-     * Checkout cart
+     * Checkout cart: one order with one item per cart line. Stock for every line is
+     * reserved atomically in the same transaction; item inserts go out as one JDBC batch.
      */
     @Override
-    public Object checkoutCart(Long customerId, CheckoutRequest request) {
+    @Transactional
+    public OrderResponseDto checkoutCart(Long customerId, CheckoutRequest request) {
         User customer = userRepository.findById(customerId)
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
 
@@ -206,51 +201,47 @@ public class CartServiceImpl implements CartService {
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
 
         if (cart.getCartItems().isEmpty()) {
-            throw new RuntimeException("Cart is empty. Cannot checkout.");
+            throw new EmptyCartException("Cart is empty. Cannot checkout.");
         }
 
         Address shippingAddress = addressRepository.findByIdAndUser(request.getShippingAddressId(), customer)
                 .orElseThrow(() -> new RuntimeException("Address not found for this customer"));
 
-        List<OrderDTO> orders = new ArrayList<>();
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (CartItem item : cart.getCartItems()) {
-            if (item.getQuantity() > item.getBook().getStock()) {
-                throw new RuntimeException("Insufficient stock for book: " + item.getBook().getTitle());
-            }
-
-            Order order = Order.builder()
-                    .customer(customer)
-                    .cart(cart)
-                    .shippingAddress(shippingAddress)
-                    .status(Order.Status.PENDING)
-                    .paymentStatus(request.getPaymentMethod().equalsIgnoreCase("COD")
-                            ? Order.PaymentStatus.COD : Order.PaymentStatus.PAID)
-                    .totalPrice(item.getBook().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                    .build();
-
-            OrderItem orderItem = OrderItem.builder()
+            quantities.merge(item.getBook().getId(), item.getQuantity(), Integer::sum);
+        }
+        Map<Long, Book> books = stockReservation.reserve(quantities);
+
+        Order order = Order.builder()
+                .customer(customer)
+                .cart(cart)
+                .shippingAddress(shippingAddress)
+                .status(Order.Status.PENDING)
+                .paymentStatus(request.getPaymentMethod().equalsIgnoreCase("COD")
+                        ? Order.PaymentStatus.COD : Order.PaymentStatus.PAID)
+                .build();
+
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Book book = books.get(line.getKey());
+            order.getOrderItems().add(OrderItem.builder()
                     .order(order)
-                    .book(item.getBook())
-                    .seller(item.getBook().getSeller())
-                    .quantity(item.getQuantity())
-                    .unitPrice(item.getBook().getPrice())
-                    .build();
-
-            order.getOrderItems().add(orderItem);
-            orderRepository.save(order);
-
-            OrderDTO dto = modelMapper.map(order, OrderDTO.class);
-            dto.setBuyerId(customer.getId());
-            dto.setBookId(item.getBook().getId());
-            dto.setSellerId(item.getBook().getSeller().getId());
-            orders.add(dto);
+                    .book(book)
+                    .seller(book.getSeller())
+                    .quantity(line.getValue())
+                    .unitPrice(book.getPrice())
+                    .build());
+            totalPrice = totalPrice.add(book.getPrice().multiply(BigDecimal.valueOf(line.getValue())));
         }
+        order.setTotalPrice(totalPrice);
+        orderRepository.save(order);
 
         cart.getCartItems().clear();
         cart.setTotalPrice(BigDecimal.ZERO);
         cartRepository.save(cart);
 
-        return orders;
+        return orderMapper.toResponse(order);
     }
 
     // ----------------- Private Helpers -----------------
@@ -266,23 +257,7 @@ public class CartServiceImpl implements CartService {
                 .cartId(cart.getId())
                 .customerId(cart.getCustomer().getId())
                 .totalPrice(cart.getTotalPrice())
-                .items(
-                        cart.getCartItems().stream()
-                                .map(item -> {
-                                    BigDecimal price = item.getBook().getPrice();
-                                    BigDecimal total = price.multiply(BigDecimal.valueOf(item.getQuantity()));
-                                    return CartItemDto.builder()
-                                            .id(item.getId())
-                                            .bookId(item.getBook().getId())
-                                            .author(item.getBook().getAuthor())
-                                            .title(item.getBook().getTitle())
-                                            .quantity(item.getQuantity())
-                                            .price(price)
-                                            .total(total)
-                                            .build();
-                                })
-                                .toList()
-                )
+                .items(cart.getCartItems().stream().map(cartItemMapper::toDto).toList())
                 .build();
     }
 }
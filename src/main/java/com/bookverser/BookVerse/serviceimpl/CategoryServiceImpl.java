@@ -4,6 +4,8 @@ import java.util.List;
 
 import org.springframework.stereotype.Service;
 
+import com.bookverser.BookVerse.cache.CachedJson;
+import com.bookverser.BookVerse.cache.CategoryCache;
 import com.bookverser.BookVerse.entity.Category;
 import com.bookverser.BookVerse.exception.CategoryAlreadyExistsException;
 import com.bookverser.BookVerse.exception.CategoryNotFoundException;
@@ -17,6 +19,7 @@ import lombok.RequiredArgsConstructor;
 public class CategoryServiceImpl implements CategoryService {
   
 	private final CategoryRepository categoryRepository;
+	private final CategoryCache categoryCache;
 
 	@Override
 	public Category createCategory(Category category) {
@@ -33,13 +36,28 @@ public class CategoryServiceImpl implements CategoryService {
 
         // Mark as active by default
         category.setActive(true);
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        categoryCache.invalidate();
+        return saved;
 	}
 
 	@Override
 	public List<Category> getAllCategories() {
-		// TODO Auto-generated method stub
-		return categoryRepository.findByIsActiveTrue();
+		return categoryCache.activeCategories();
+	}
+
+	@Override
+	public CachedJson getAllCategoriesJson() {
+		return categoryCache.activeCategoriesJson();
+	}
+
+	@Override
+	public CachedJson getCategoryJson(Long id) {
+		CachedJson json = categoryCache.categoryJson(id);
+		if (json == null) {
+			throw new CategoryNotFoundException("Category not found with id " + id);
+		}
+		return json;
 	}
 
 	@Override
@@ -68,7 +86,9 @@ public class CategoryServiceImpl implements CategoryService {
         category.setName(updatedCategory.getName());
         category.setDescription(updatedCategory.getDescription());
         category.setActive(updatedCategory.isActive());
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        categoryCache.invalidate();
+        return saved;
 	}
 
 	@Override
@@ -81,7 +101,8 @@ public class CategoryServiceImpl implements CategoryService {
 	        }
 
 	        category.setActive(false);
-	        categoryRepository.save(category);		
+	        categoryRepository.save(category);
+	        categoryCache.invalidate();
 	}
 
 	@Override
@@ -94,6 +115,7 @@ public class CategoryServiceImpl implements CategoryService {
 	        }
 
 	        categoryRepository.deleteById(id);
+	        categoryCache.invalidate();
 	}
 	
 	
@@ -1,7 +1,6 @@
 package com.bookverser.BookVerse.serviceimpl;
 
 
-import java.io.ByteArrayOutputStream;
 
 import com.bookverser.BookVerse.dto.BulkOrderStatusUpdateRequest;
 import com.bookverser.BookVerse.dto.CartItemDto;
@@ -15,14 +14,23 @@ import com.bookverser.BookVerse.repository.OrderRepository;
 import com.bookverser.BookVerse.repository.UserRepository;
 
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
+import com.bookverser.BookVerse.invoice.InvoiceData;
+import com.bookverser.BookVerse.invoice.InvoiceExporter;
+import com.bookverser.BookVerse.invoice.InvoiceStore;
+import com.bookverser.BookVerse.mapper.OrderMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -66,16 +74,6 @@ import com.bookverser.BookVerse.security.CustomUserDetails;
 
 import com.bookverser.BookVerse.service.OrderService;
 
-import com.itextpdf.text.Chunk;
-import com.itextpdf.text.Document;
-import com.itextpdf.text.Element;
-import com.itextpdf.text.Font;
-import com.itextpdf.text.PageSize;
-import com.itextpdf.text.Paragraph;
-import com.itextpdf.text.Phrase;
-import com.itextpdf.text.pdf.PdfPCell;
-import com.itextpdf.text.pdf.PdfPTable;
-import com.itextpdf.text.pdf.PdfWriter;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
@@ -86,90 +84,86 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import jakarta.transaction.Transactional;
 
 
 
 @Service
-@RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    @Autowired
+    private UserRepository userRepository;
 
-	@Autowired
-	private UserRepository userRepository;
-
-	@Autowired
-	private BookRepository bookRepository;
-
-	@Autowired
-	private OrderRepository orderRepository;
-
-	@Autowired
-	private AddressRepository addressRepository;
-
-	@Autowired
-	private ModelMapper modelMapper;
-
-	private static final int RETURN_DAYS_LIMIT = 7;
-
-	// Constructor with simplified ModelMapper configuration
-	public OrderServiceImpl(ModelMapper modelMapper) {
-		this.modelMapper = modelMapper;
-		// Map Order to OrderResponseDto (for paymentMethod)
-		modelMapper.typeMap(Order.class, OrderResponseDto.class)
-				.addMappings(mapper -> mapper.map(
-						src -> src.getPaymentStatus() != null ? src.getPaymentStatus().name() : null,
-						OrderResponseDto::setPaymentMethod));
-		// Map OrderItem to CartItemDto (for title, author, total)
-		modelMapper.typeMap(OrderItem.class, CartItemDto.class).addMappings(mapper -> {
-			mapper.map(src -> src.getBook() != null ? src.getBook().getId() : null, CartItemDto::setBookId);
-			mapper.map(src -> src.getBook() != null ? src.getBook().getTitle() : null, CartItemDto::setTitle);
-			mapper.map(src -> src.getBook() != null ? src.getBook().getAuthor() : null, CartItemDto::setAuthor);
-			mapper.map(src -> src.getUnitPrice(), CartItemDto::setPrice);
-			mapper.map(src -> src.getUnitPrice() != null
-					? src.getUnitPrice().multiply(BigDecimal.valueOf(src.getQuantity()))
-					: null, CartItemDto::setTotal);
-		});
-		// Simplified mapping for OrderItem to OrderDTO
-		modelMapper.typeMap(OrderItem.class, OrderDTO.class).addMappings(mapper -> {
-			mapper.map(src -> src.getId(), OrderDTO::setId);
-			mapper.map(src -> src.getBook() != null ? src.getBook().getId() : null, OrderDTO::setBookId);
-			// Avoid complex mappings that might cause null issues
-		});
-
-    private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private StockReservation stockReservation;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private InvoiceStore invoiceStore;
+
+    @Autowired
+    private InvoiceExporter invoiceExporter;
+
+    private static final int RETURN_DAYS_LIMIT = 7;
+
+    private static final int MAX_ORDER_HISTORY_PAGE_SIZE = 50;
 
     // ================== CUSTOMER: GET MY ORDERS ==================
     @Override
-    public List<OrderResponseDto> getMyOrders(String email) {
-        User customer = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UnauthorizedException("Customer not found"));
+    @Transactional(readOnly = true)
+    public OrderHistoryPageDto getMyOrders(Long customerId, LocalDateTime cursorCreatedAt, Long cursorId, int size) {
+        if (customerId == null) {
+            throw new UnauthorizedException("Customer not found");
+        }
+        if ((cursorCreatedAt == null) != (cursorId == null)) {
+            throw new IllegalArgumentException("cursorCreatedAt and cursorId must be provided together");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_ORDER_HISTORY_PAGE_SIZE));
 
-        List<Order> orders = orderRepository.findAll()
-                .stream()
-                .filter(order -> order.getCustomer().getId().equals(customer.getId()))
-                .collect(Collectors.toList());
+        // Fetch one extra id to know whether another page follows
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Long> ids = cursorCreatedAt == null
+                ? orderRepository.findLatestOrderIdsByCustomer(customerId, limit)
+                : orderRepository.findOrderIdsByCustomerBefore(customerId, cursorCreatedAt, cursorId, limit);
 
-        return orders.stream().map(order -> {
-            OrderResponseDto dto = new OrderResponseDto();
-            dto.setOrderId(order.getId());
-            dto.setCustomerId(order.getCustomer().getId());
-            dto.setPaymentMethod(order.getPaymentStatus().name());
-            dto.setStatus(order.getStatus().name());
-            dto.setTotalAmount(order.getTotalPrice());
+        boolean hasMore = ids.size() > pageSize;
+        if (hasMore) {
+            ids = ids.subList(0, pageSize);
+        }
+        if (ids.isEmpty()) {
+            return new OrderHistoryPageDto(List.of(), false, null, null);
+        }
 
-            List<CartItemDto> items = order.getOrderItems().stream().map(item -> {
-                CartItemDto cartItemDto = new CartItemDto();
-                cartItemDto.setBookId(item.getBook().getId());
-                cartItemDto.setQuantity(item.getQuantity());
-                cartItemDto.setPrice(item.getUnitPrice());
-                return cartItemDto;
-            }).collect(Collectors.toList());
+        // Items, books and address for the whole page in a single fetch join, then restore keyset order
+        Map<Long, Order> byId = orderRepository.findAllWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, o -> o));
+        List<OrderResponseDto> orders = new ArrayList<>(ids.size());
+        Order last = null;
+        for (Long id : ids) {
+            Order order = byId.get(id);
+            if (order != null) {
+                orders.add(mapToOrderResponse(order));
+                last = order;
+            }
+        }
 
-            dto.setItems(items);
-            return dto;
-        }).collect(Collectors.toList());
+        return new OrderHistoryPageDto(orders, hasMore,
+                hasMore && last != null ? last.getCreatedAt() : null,
+                hasMore && last != null ? last.getId() : null);
+    }
+
+    private OrderResponseDto mapToOrderResponse(Order order) {
+        return orderMapper.toResponse(order);
     }
 
     // ================== ADMIN: GET ALL ORDERS ==================
@@ -180,29 +174,20 @@ public class OrderServiceImpl implements OrderService {
                                               Long customerId,
                                               Pageable pageable) {
 
-        List<Order> orders = orderRepository.findAll();
-
-        List<OrderSummaryDto> filtered = orders.stream()
-                .filter(order -> status == null || order.getStatus().name().equalsIgnoreCase(status))
-                .filter(order -> fromDate == null || !order.getCreatedAt().toLocalDate().isBefore(fromDate))
-                .filter(order -> toDate == null || !order.getCreatedAt().toLocalDate().isAfter(toDate))
-                .filter(order -> customerId == null || order.getCustomer().getId().equals(customerId))
-                .map(order -> new OrderSummaryDto(
-                        order.getId(),
-                        order.getCustomer().getId(),
-                        order.getCustomer().getEmail(),
-                        order.getStatus().name(),
-                        order.getPaymentStatus().name(),
-                        order.getTotalPrice(),
-                        order.getCreatedAt()
-                ))
-                .collect(Collectors.toList());
-
-        int start = (int) pageable.getOffset();
-        int end = Math.min(start + pageable.getPageSize(), filtered.size());
-        List<OrderSummaryDto> pagedList = filtered.subList(start, end);
-
-        return new PageImpl<>(pagedList, pageable, filtered.size());
+        Order.Status statusFilter = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                statusFilter = Order.Status.valueOf(status.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid order status: " + status);
+            }
+        }
+
+        // toDate is inclusive, so compare against the start of the following day
+        LocalDateTime from = fromDate != null ? fromDate.atStartOfDay() : null;
+        LocalDateTime to = toDate != null ? toDate.plusDays(1).atStartOfDay() : null;
+
+        return orderRepository.findOrderSummaries(statusFilter, from, to, customerId, pageable);
     }
 
 
@@ -252,7 +237,7 @@ public class OrderServiceImpl implements OrderService {
             dto.setCustomerId(order.getCustomer().getId());
             dto.setPaymentMethod(order.getPaymentStatus().name());
             dto.setStatus(order.getStatus().name());
-            dto.setTotalAmount(order.getTotalPrice());
+            dto.setTotalAmount(order.getTotalPrice() != null ? order.getTotalPrice().doubleValue() : 0.0);
 
             List<CartItemDto> items = order.getOrderItems().stream().map(item -> {
                 CartItemDto cartItemDto = new CartItemDto();
@@ -267,47 +252,6 @@ public class OrderServiceImpl implements OrderService {
         }).collect(Collectors.toList());
     }
 
-    @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private BookRepository bookRepository;
-
-    @Autowired
-    private OrderRepository orderRepository;
-
-    @Autowired
-    private AddressRepository addressRepository;
-
-    @Autowired
-    private ModelMapper modelMapper;
-
-    private static final int RETURN_DAYS_LIMIT = 7;
-
-    // Constructor with simplified ModelMapper configuration
-    public OrderServiceImpl(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-        // Map Order to OrderResponseDto (for paymentMethod)
-        modelMapper.typeMap(Order.class, OrderResponseDto.class)
-                .addMappings(mapper -> mapper.map(src -> src.getPaymentStatus() != null ? src.getPaymentStatus().name() : null, OrderResponseDto::setPaymentMethod));
-        // Map OrderItem to CartItemDto (for title, author, total)
-        modelMapper.typeMap(OrderItem.class, CartItemDto.class)
-                .addMappings(mapper -> {
-                    mapper.map(src -> src.getBook() != null ? src.getBook().getId() : null, CartItemDto::setBookId);
-                    mapper.map(src -> src.getBook() != null ? src.getBook().getTitle() : null, CartItemDto::setTitle);
-                    mapper.map(src -> src.getBook() != null ? src.getBook().getAuthor() : null, CartItemDto::setAuthor);
-                    mapper.map(src -> src.getUnitPrice(), CartItemDto::setPrice);
-                    mapper.map(src -> src.getUnitPrice() != null ? src.getUnitPrice().multiply(BigDecimal.valueOf(src.getQuantity())) : null, CartItemDto::setTotal);
-                });
-        // Simplified mapping for OrderItem to OrderDTO
-        modelMapper.typeMap(OrderItem.class, OrderDTO.class)
-                .addMappings(mapper -> {
-                    mapper.map(src -> src.getId(), OrderDTO::setId);
-                    mapper.map(src -> src.getBook() != null ? src.getBook().getId() : null, OrderDTO::setBookId);
-                    // Avoid complex mappings that might cause null issues
-                });
-    }
-
     @Transactional
     @Override
     public OrderResponseDto placeOrder(PlaceOrderRequest request) {
@@ -336,27 +280,27 @@ public class OrderServiceImpl implements OrderService {
         // Map payment method to DB-safe enum
         Order.PaymentStatus paymentStatus = method.equals("COD") ? Order.PaymentStatus.COD : Order.PaymentStatus.PAID;
 
-        // Validate items
-        BigDecimal totalPrice = BigDecimal.ZERO;
-        List<OrderItem> orderItems = new ArrayList<>();
+        // Reserve stock: one query for all books, one conditional update per distinct book
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
         for (PlaceOrderRequest.OrderItemRequest itemReq : request.getItems()) {
-            Book book = bookRepository.findById(itemReq.getBookId())
-                    .orElseThrow(() -> new BookNotFoundException("Book not found: " + itemReq.getBookId()));
-
-            if (book.getStock() < itemReq.getQuantity())
-                throw new InsufficientStockException("Book " + book.getTitle() + " has insufficient stock");
-
-            book.setStock(book.getStock() - itemReq.getQuantity());
-            bookRepository.save(book);
+            if (itemReq.getQuantity() == null || itemReq.getQuantity() < 1)
+                throw new InvalidQuantityException("Quantity must be at least 1 for book " + itemReq.getBookId());
+            quantities.merge(itemReq.getBookId(), itemReq.getQuantity(), Integer::sum);
+        }
+        Map<Long, Book> books = stockReservation.reserve(quantities);
 
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Book book = books.get(line.getKey());
             OrderItem orderItem = OrderItem.builder()
                     .book(book)
                     .seller(book.getSeller())
-                    .quantity(itemReq.getQuantity())
+                    .quantity(line.getValue())
                     .unitPrice(book.getPrice())
                     .build();
 
-            totalPrice = totalPrice.add(book.getPrice().multiply(BigDecimal.valueOf(itemReq.getQuantity())));
+            totalPrice = totalPrice.add(book.getPrice().multiply(BigDecimal.valueOf(line.getValue())));
             orderItems.add(orderItem);
         }
 
@@ -377,35 +321,8 @@ public class OrderServiceImpl implements OrderService {
 
         Order savedOrder = orderRepository.save(order);
 
-        // Build response items manually to ensure no nulls
-        List<CartItemDto> responseItems = orderItems.stream().map(item -> {
-            CartItemDto dto = new CartItemDto();
-            dto.setId(item.getId());
-            dto.setBookId(item.getBook() != null ? item.getBook().getId() : null);
-            dto.setTitle(item.getBook() != null ? item.getBook().getTitle() : null);
-            dto.setAuthor(item.getBook() != null ? item.getBook().getAuthor() : null);
-            dto.setQuantity(item.getQuantity());
-            dto.setPrice(item.getUnitPrice());
-            dto.setTotal(item.getUnitPrice() != null ? item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())) : null);
-            return dto;
-        }).toList();
-
-        AddressResponseDto addressDto = new AddressResponseDto(
-                shippingAddress.getId(),
-                shippingAddress.getCity(),
-                shippingAddress.getState(),
-                shippingAddress.getCountry()
-        );
-
-        OrderResponseDto response = new OrderResponseDto();
-        response.setOrderId(savedOrder.getId());
-        response.setCustomerId(customer.getId());
+        OrderResponseDto response = mapToOrderResponse(savedOrder);
         response.setPaymentMethod(method);
-        response.setStatus(savedOrder.getStatus() != null ? savedOrder.getStatus().name() : null);
-        response.setTotalAmount(savedOrder.getTotalPrice() != null ? savedOrder.getTotalPrice().doubleValue() : 0.0);
-        response.setItems(responseItems);
-        response.setShippingAddress(addressDto);
-
         return response;
     }
 
@@ -421,36 +338,7 @@ public class OrderServiceImpl implements OrderService {
         if (!order.getCustomer().getId().equals(userDetails.getId()) && !userDetails.isAdmin())
             throw new UnauthorizedException("Access denied");
 
-        // Manually build response to ensure no nulls
-        OrderResponseDto response = new OrderResponseDto();
-        response.setOrderId(order.getId());
-        response.setCustomerId(order.getCustomer() != null ? order.getCustomer().getId() : null);
-        response.setPaymentMethod(order.getPaymentStatus() != null ? order.getPaymentStatus().name() : null);
-        response.setStatus(order.getStatus() != null ? order.getStatus().name() : null);
-        response.setTotalAmount(order.getTotalPrice() != null ? order.getTotalPrice().doubleValue() : 0.0);
-
-        List<CartItemDto> responseItems = order.getOrderItems().stream().map(item -> {
-            CartItemDto dto = new CartItemDto();
-            dto.setId(item.getId());
-            dto.setBookId(item.getBook() != null ? item.getBook().getId() : null);
-            dto.setTitle(item.getBook() != null ? item.getBook().getTitle() : null);
-            dto.setAuthor(item.getBook() != null ? item.getBook().getAuthor() : null);
-            dto.setQuantity(item.getQuantity());
-            dto.setPrice(item.getUnitPrice());
-            dto.setTotal(item.getUnitPrice() != null ? item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())) : null);
-            return dto;
-        }).toList();
-        response.setItems(responseItems);
-
-        AddressResponseDto addressDto = new AddressResponseDto(
-                order.getShippingAddress() != null ? order.getShippingAddress().getId() : null,
-                order.getShippingAddress() != null ? order.getShippingAddress().getCity() : null,
-                order.getShippingAddress() != null ? order.getShippingAddress().getState() : null,
-                order.getShippingAddress() != null ? order.getShippingAddress().getCountry() : null
-        );
-        response.setShippingAddress(addressDto);
-
-        return response;
+        return mapToOrderResponse(order);
     }
 
     @Transactional
@@ -512,17 +400,7 @@ public class OrderServiceImpl implements OrderService {
             order.setStatus(newStatus);
             Order updatedOrder = orderRepository.save(order);
 
-            // ✅ Convert to DTO using ModelMapper
-            OrderDTO dto = modelMapper.map(updatedOrder, OrderDTO.class);
-
-            // manual fix for nested mapping
-            dto.setBuyerId(updatedOrder.getCustomer().getId());
-            if (!updatedOrder.getOrderItems().isEmpty()) {
-                dto.setSellerId(updatedOrder.getOrderItems().get(0).getSeller().getId());
-                dto.setBookId(updatedOrder.getOrderItems().get(0).getBook().getId());
-            }
-
-            return dto;
+            return orderMapper.toDto(updatedOrder);
 
         } catch (IllegalArgumentException ex) {
             throw new IllegalArgumentException("Invalid status. Allowed: PENDING, SHIPPED, DELIVERED, CANCELLED");
@@ -557,8 +435,8 @@ public class OrderServiceImpl implements OrderService {
         order.setStatus(Order.Status.CANCELLED);
         Order updatedOrder = orderRepository.save(order);
 
-        // 5️⃣ Convert Entity → DTO using ModelMapper
-        return modelMapper.map(updatedOrder, OrderDTO.class);
+        // 5️⃣ Convert Entity → DTO
+        return orderMapper.toDto(updatedOrder);
     }
 
 
@@ -587,130 +465,48 @@ public class OrderServiceImpl implements OrderService {
         order.setPaymentStatus(Order.PaymentStatus.PAID);
         Order updatedOrder = orderRepository.save(order);
 
-        // Manually build response to ensure no nulls
-        OrderResponseDto response = new OrderResponseDto();
-        response.setOrderId(updatedOrder.getId());
-        response.setCustomerId(updatedOrder.getCustomer() != null ? updatedOrder.getCustomer().getId() : null);
-        response.setPaymentMethod(updatedOrder.getPaymentStatus() != null ? updatedOrder.getPaymentStatus().name() : null);
-        response.setStatus(updatedOrder.getStatus() != null ? updatedOrder.getStatus().name() : null);
-        response.setTotalAmount(updatedOrder.getTotalPrice() != null ? updatedOrder.getTotalPrice().doubleValue() : 0.0);
-
-        List<CartItemDto> responseItems = updatedOrder.getOrderItems().stream().map(item -> {
-            CartItemDto dto = new CartItemDto();
-            dto.setId(item.getId());
-            dto.setBookId(item.getBook() != null ? item.getBook().getId() : null);
-            dto.setTitle(item.getBook() != null ? item.getBook().getTitle() : null);
-            dto.setAuthor(item.getBook() != null ? item.getBook().getAuthor() : null);
-            dto.setQuantity(item.getQuantity());
-            dto.setPrice(item.getUnitPrice());
-            dto.setTotal(item.getUnitPrice() != null ? item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())) : null);
-            return dto;
-        }).toList();
-        response.setItems(responseItems);
-
-        AddressResponseDto addressDto = new AddressResponseDto(
-                updatedOrder.getShippingAddress() != null ? updatedOrder.getShippingAddress().getId() : null,
-                updatedOrder.getShippingAddress() != null ? updatedOrder.getShippingAddress().getCity() : null,
-                updatedOrder.getShippingAddress() != null ? updatedOrder.getShippingAddress().getState() : null,
-                updatedOrder.getShippingAddress() != null ? updatedOrder.getShippingAddress().getCountry() : null
-        );
-        response.setShippingAddress(addressDto);
-
-        return response;
+        return mapToOrderResponse(updatedOrder);
     }
-}
-}
 
 	@Override
 	@Transactional(readOnly = true)
-	public byte[] generateInvoicePdf(Long orderId) {
+	public CompletableFuture<Path> generateInvoicePdf(Long orderId) {
 
 		// --- Verify admin access ---
-		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-		if (auth == null || !auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-			throw new UnauthorizedException("Only admins can generate invoices.");
-		}
+		requireAdmin();
 
-		// --- Fetch order ---
-		Order order = orderRepository.findById(orderId)
+		// --- Snapshot the printed fields; layout and disk I/O happen in InvoiceStore ---
+		Order order = orderRepository.findForInvoice(orderId)
 				.orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + orderId));
+		return invoiceStore.pdfFor(InvoiceData.from(order));
+	}
 
-		// --- Extract only simple data to avoid recursion ---
-		String customerName = order.getCustomer() != null ? order.getCustomer().getName() : "N/A";
-		String customerEmail = order.getCustomer() != null ? order.getCustomer().getEmail() : "N/A";
-		String shippingAddress = order.getShippingAddress() != null
-				? (order.getShippingAddress().getCity() + order.getShippingAddress().getCountry()
-						+ order.getShippingAddress().getCountry())
-				: "N/A";
-		LocalDateTime orderDate = order.getCreatedAt();
-		BigDecimal totalPrice = order.getTotalPrice();
-		PaymentStatus paymentStatus = order.getPaymentStatus();
-
-		try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-			Document document = new Document(PageSize.A4);
-			PdfWriter.getInstance(document, outputStream);
-			document.open();
-
-			// --- Title ---
-			Font titleFont = new Font(Font.FontFamily.HELVETICA, 20, Font.BOLD);
-			Paragraph title = new Paragraph("BookVerse Invoice", titleFont);
-			title.setAlignment(Element.ALIGN_CENTER);
-			document.add(title);
-			document.add(Chunk.NEWLINE);
-
-			// --- Order info ---
-			Font infoFont = new Font(Font.FontFamily.HELVETICA, 12);
-			document.add(new Paragraph("Order ID: " + orderId, infoFont));
-			document.add(new Paragraph("Order Date: " + orderDate, infoFont));
-			document.add(new Paragraph("Customer: " + customerName, infoFont));
-			document.add(new Paragraph("Email: " + customerEmail, infoFont));
-			document.add(new Paragraph("Shipping Address: " + shippingAddress, infoFont));
-			document.add(Chunk.NEWLINE);
-
-			// --- Items table ---
-			PdfPTable table = new PdfPTable(4);
-			table.setWidthPercentage(100);
-			table.setWidths(new int[] { 4, 1, 2, 2 });
-			Font headFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-			table.addCell(new PdfPCell(new Phrase("Book Title", headFont)));
-			table.addCell(new PdfPCell(new Phrase("Qty", headFont)));
-			table.addCell(new PdfPCell(new Phrase("Unit Price", headFont)));
-			table.addCell(new PdfPCell(new Phrase("Subtotal", headFont)));
-
-			List<OrderItem> items = order.getOrderItems() != null
-			        ? new ArrayList<>(order.getOrderItems())
-			        : new ArrayList<>();
-			for (OrderItem item : items) {
-				String titleTxt = item.getBook() != null ? item.getBook().getTitle() : "N/A";
-				BigDecimal price = item.getBook() != null ? item.getBook().getPrice() : BigDecimal.ZERO;
-				int qty = item.getQuantity();
-				BigDecimal subTot = price.multiply(BigDecimal.valueOf(qty));
-
-				table.addCell(titleTxt);
-				table.addCell(String.valueOf(qty));
-				table.addCell("₹" + price);
-				table.addCell("₹" + subTot);
+	@Override
+	public void exportInvoices(String status, LocalDate fromDate, LocalDate toDate, Long sellerId, OutputStream out)
+			throws IOException {
+		requireAdmin();
+
+		Order.Status statusFilter = null;
+		if (status != null && !status.isBlank()) {
+			try {
+				statusFilter = Order.Status.valueOf(status.trim().toUpperCase());
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Invalid order status: " + status);
 			}
-			document.add(table);
-			document.add(Chunk.NEWLINE);
-
-			// --- Totals & footer ---
-			Font totalFont = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
-			Paragraph total = new Paragraph("Total: ₹" + totalPrice, totalFont);
-			total.setAlignment(Element.ALIGN_RIGHT);
-			document.add(total);
-
-			document.add(new Paragraph("Payment Status: " + paymentStatus, infoFont));
-			document.add(Chunk.NEWLINE);
+		}
 
-			Paragraph footer = new Paragraph("Thank you for shopping with BookVerse!", infoFont);
-			footer.setAlignment(Element.ALIGN_CENTER);
-			document.add(footer);
+		// toDate is inclusive, so compare against the start of the following day
+		LocalDateTime from = fromDate != null ? fromDate.atStartOfDay() : null;
+		LocalDateTime to = toDate != null ? toDate.plusDays(1).atStartOfDay() : null;
 
-			document.close();
-			return outputStream.toByteArray();
+		// No surrounding transaction: the exporter reads page by page while it streams
+		invoiceExporter.export(statusFilter, from, to, sellerId, out);
+	}
 
-		} catch (Exception e) {
-			throw new RuntimeException("Error generating invoice PDF: " + e.getMessage(), e);
+	private void requireAdmin() {
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		if (auth == null || !auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+			throw new UnauthorizedException("Only admins can generate invoices.");
 		}
 	}
+}
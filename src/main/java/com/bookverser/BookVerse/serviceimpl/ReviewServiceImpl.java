@@ -1,5 +1,6 @@
 package com.bookverser.BookVerse.serviceimpl;
 
+import com.bookverser.BookVerse.dto.RatingSummaryDto;
 import com.bookverser.BookVerse.dto.ReviewDTO;
 import com.bookverser.BookVerse.entity.Book;
 import com.bookverser.BookVerse.entity.User;
@@ -12,11 +13,16 @@ import com.bookverser.BookVerse.repository.ReviewRepository;
 import com.bookverser.BookVerse.repository.UserRepository;
 import com.bookverser.BookVerse.repository.OrderItemRepository;
 import com.bookverser.BookVerse.service.ReviewService;
+import com.bookverser.BookVerse.storefront.StorefrontSnapshot;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,7 +43,11 @@ public class ReviewServiceImpl implements ReviewService {
     @Autowired
     private ModelMapper modelMapper;
 
+    @Autowired
+    private StorefrontSnapshot storefrontSnapshot;
+
     @Override
+    @Transactional
     public ReviewDTO addReview(Long bookId, Long customerId, int rating, String comment) {
         // 1️⃣ Validate customer
         User customer = userRepository.findById(customerId)
@@ -77,6 +87,10 @@ public class ReviewServiceImpl implements ReviewService {
 
         Review saved = reviewRepository.save(review);
 
+        // Bump the book's rating aggregates in the same transaction as the review insert
+        bookRepository.addRating(book.getId(), rating, LocalDateTime.now());
+        storefrontSnapshot.bookChanged(book);
+
         // 8️⃣ Convert to DTO
         ReviewDTO dto = new ReviewDTO();
         dto.setReviewId(saved.getId());
@@ -113,6 +127,20 @@ public class ReviewServiceImpl implements ReviewService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public RatingSummaryDto getRatingSummary(Long bookId) {
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new BookNotFoundException("Book not found."));
+
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        histogram.put(1, book.getOneStarCount());
+        histogram.put(2, book.getTwoStarCount());
+        histogram.put(3, book.getThreeStarCount());
+        histogram.put(4, book.getFourStarCount());
+        histogram.put(5, book.getFiveStarCount());
+        return new RatingSummaryDto(book.getId(), book.getRatingCount(), book.getAverageRating(), histogram);
+    }
+
     @Override
     public void reportReview(Long reviewId, Long userId) {
         // Optional: implement later
@@ -0,0 +1,74 @@
+package com.bookverser.BookVerse.serviceimpl;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookverser.BookVerse.repository.AddressRepository;
+import com.bookverser.BookVerse.repository.BookRepository;
+
+/**
+ * Keeps Book.sellerCity in step with the seller's primary address (their first one),
+ * so location filters are an indexed column match instead of a join over every address.
+ */
+@Component
+public class SellerLocations {
+
+    private static final Logger logger = LoggerFactory.getLogger(SellerLocations.class);
+
+    private final AddressRepository addressRepository;
+    private final BookRepository bookRepository;
+
+    public SellerLocations(AddressRepository addressRepository, BookRepository bookRepository) {
+        this.addressRepository = addressRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    /** @return the seller's primary city, or null if they have no address */
+    public String primaryCity(Long sellerId) {
+        return primaryCities(List.of(sellerId)).get(sellerId);
+    }
+
+    /** @return primary city per seller; sellers without an address are absent */
+    public Map<Long, String> primaryCities(Collection<Long> sellerIds) {
+        Map<Long, String> cities = new HashMap<>();
+        if (!sellerIds.isEmpty()) {
+            for (Object[] row : addressRepository.findPrimaryCities(sellerIds)) {
+                cities.put((Long) row[0], (String) row[1]);
+            }
+        }
+        return cities;
+    }
+
+    /** Re-stamps the seller's listings after their addresses changed. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Long sellerId) {
+        String city = primaryCity(sellerId);
+        LocalDateTime now = LocalDateTime.now();
+        if (city == null) {
+            bookRepository.clearSellerCity(sellerId, now);
+        } else {
+            bookRepository.updateSellerCity(sellerId, city, now);
+        }
+    }
+
+    /** Fills sellerCity on listings created before the column existed. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int updated = bookRepository.backfillSellerCities(LocalDateTime.now());
+        if (updated > 0) {
+            logger.info("Backfilled seller city on {} books", updated);
+        }
+    }
+}
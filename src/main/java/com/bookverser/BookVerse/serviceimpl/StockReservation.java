@@ -0,0 +1,74 @@
+package com.bookverser.BookVerse.serviceimpl;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bookverser.BookVerse.entity.Book;
+import com.bookverser.BookVerse.exception.BookNotFoundException;
+import com.bookverser.BookVerse.exception.InsufficientStockException;
+import com.bookverser.BookVerse.exception.InvalidQuantityException;
+import com.bookverser.BookVerse.repository.BookRepository;
+import com.bookverser.BookVerse.storefront.StorefrontSnapshot;
+
+/**
+ * Atomically reserves stock for an order.
+ *
+ * All books are loaded with one query; stock is then taken with a conditional
+ * UPDATE (stock = stock - q WHERE stock >= q) per book, so two concurrent orders can
+ * never both take the last copy. Rows are updated in ascending id order so orders
+ * touching the same books lock them in the same order and cannot deadlock.
+ * Must run inside the caller's transaction: a shortage rolls the whole order back.
+ */
+@Component
+public class StockReservation {
+
+    private final BookRepository bookRepository;
+    private final StorefrontSnapshot storefrontSnapshot;
+
+    public StockReservation(BookRepository bookRepository, StorefrontSnapshot storefrontSnapshot) {
+        this.bookRepository = bookRepository;
+        this.storefrontSnapshot = storefrontSnapshot;
+    }
+
+    /**
+     * @param quantities book id -> quantity (duplicate lines must already be summed).
+     * @return the reserved books by id. Their in-memory stock is not refreshed.
+     * @throws BookNotFoundException if a book does not exist or is inactive.
+     * @throws InsufficientStockException if any book has fewer copies than requested.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Book> reserve(Map<Long, Integer> quantities) {
+        Map<Long, Integer> ordered = new TreeMap<>(quantities);
+        ordered.forEach((bookId, quantity) -> {
+            if (quantity == null || quantity < 1) {
+                throw new InvalidQuantityException("Quantity must be at least 1 for book " + bookId);
+            }
+        });
+
+        Map<Long, Book> books = bookRepository.findAllById(ordered.keySet()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        for (Long bookId : ordered.keySet()) {
+            Book book = books.get(bookId);
+            if (book == null || !book.isActive()) {
+                throw new BookNotFoundException("Book not found: " + bookId);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ordered.forEach((bookId, quantity) -> {
+            if (bookRepository.decrementStock(bookId, quantity, now) == 0) {
+                throw new InsufficientStockException("Book " + books.get(bookId).getTitle() + " has insufficient stock");
+            }
+        });
+        // Listed books show their stock on the home page; rebuilds happen after commit and coalesce
+        books.values().forEach(storefrontSnapshot::bookChanged);
+        return books;
+    }
+}
@@ -18,37 +18,41 @@ import com.bookverser.BookVerse.repository.AddressRepository;
 import com.bookverser.BookVerse.repository.PasswordResetTokenRepository;
 import com.bookverser.BookVerse.repository.RoleRepository;
 import com.bookverser.BookVerse.repository.UserRepository;
+import com.bookverser.BookVerse.images.ImageFormat;
+import com.bookverser.BookVerse.mail.MailOutbox;
+import com.bookverser.BookVerse.security.CustomUserDetails;
+import com.bookverser.BookVerse.security.JwtUtil;
+import com.bookverser.BookVerse.security.PasswordVerifier;
+import com.bookverser.BookVerse.security.PrincipalCache;
 import com.bookverser.BookVerse.service.UserService;
+import com.bookverser.BookVerse.storage.BlobStore;
 import com.bookverser.BookVerse.dto.AddressResponseDto;
 
 
 import java.io.IOException;
+import java.io.InputStream;
 
 import jakarta.transaction.Transactional;
 
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import com.bookverser.BookVerse.mapper.UserMapper;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -57,26 +61,38 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final PasswordResetTokenRepository tokenRepository;
-    private final JavaMailSender mailSender;
+    private final MailOutbox mailOutbox;
     private final AddressRepository addressRepository; // 
+    private final PrincipalCache principalCache;
+    private final PasswordVerifier passwordVerifier;
+    private final JwtUtil jwtUtil;
+    private final BlobStore blobStore;
 
 
     public UserServiceImpl(UserRepository userRepository,
                            RoleRepository roleRepository,
                            PasswordEncoder passwordEncoder,
-                           ModelMapper modelMapper,
+                           UserMapper userMapper,
                            PasswordResetTokenRepository tokenRepository,
-                           JavaMailSender mailSender,
-                           AddressRepository addressRepository) {
+                           MailOutbox mailOutbox,
+                           AddressRepository addressRepository,
+                           PrincipalCache principalCache,
+                           PasswordVerifier passwordVerifier,
+                           JwtUtil jwtUtil,
+                           BlobStore blobStore) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
-        this.modelMapper = modelMapper;
+        this.userMapper = userMapper;
         this.tokenRepository = tokenRepository;
-        this.mailSender = mailSender;
+        this.mailOutbox = mailOutbox;
         this.addressRepository = addressRepository;
+        this.principalCache = principalCache;
+        this.passwordVerifier = passwordVerifier;
+        this.jwtUtil = jwtUtil;
+        this.blobStore = blobStore;
     }
      
     
@@ -201,23 +217,40 @@ public class UserServiceImpl implements UserService {
 	
 
 	@Override
-	public LoginResponse processLogin(LoginRequest loginRequest, String accessToken, String refreshToken) {
-		 User user = userRepository.findByEmail(loginRequest.getEmail())
-	                .orElseThrow(() -> new RuntimeException("User not found with email: " + loginRequest.getEmail()));
-
-	        // Prepare roles
-	        List<String> roles = user.getRoles().stream()
-	                .map(Role::getName)
-	                .collect(Collectors.toList());
-
-	        return new LoginResponse(
-	                accessToken,
-	                refreshToken,
-	                user.getId(),
-	                user.getEmail(),
-	                user.getName(),
-	                roles
-	        );
+	public CompletableFuture<LoginResponse> login(LoginRequest loginRequest) {
+		// The only lookup: user and roles in one query, and the same row answers the response
+		Optional<User> found = userRepository.findWithRolesByEmail(loginRequest.getEmail());
+		CustomUserDetails principal = found
+				.map(user -> new CustomUserDetails(user.getId(), user.getEmail(), user.getPassword(),
+						user.getRoles().stream()
+								.map(role -> new SimpleGrantedAuthority(role.getName()))
+								.collect(Collectors.toList()),
+						user.isActive()))
+				.orElse(null);
+		String name = found.map(User::getName).orElse(null);
+
+		// BCrypt runs on the hash pool; an unknown email is checked against a dummy hash
+		return passwordVerifier.matches(loginRequest.getPassword(), principal != null ? principal.getPassword() : null)
+				.thenApply(matches -> {
+					if (!matches) {
+						throw new BadCredentialsException("Invalid email or password");
+					}
+					// Checked after the password so a wrong guess cannot tell blocked accounts apart
+					if (!principal.isEnabled()) {
+						throw new DisabledException("Account is disabled");
+					}
+					List<String> roles = principal.getAuthorities().stream()
+							.map(GrantedAuthority::getAuthority)
+							.collect(Collectors.toList());
+					return new LoginResponse(
+							jwtUtil.generateAccessToken(principal),
+							jwtUtil.generateRefreshToken(principal),
+							principal.getId(),
+							principal.getUsername(),
+							name,
+							roles
+					);
+				});
 	}
 
 	
@@ -247,12 +280,17 @@ public class UserServiceImpl implements UserService {
 
 	        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
 	        userRepository.save(user);
+	        principalCache.invalidate(email);
 
 	        return "Password changed successfully";
 	}
 	
 
+	// How long a reset OTP is accepted; the mail carrying it is not delivered after that either
+	private static final Duration OTP_VALIDITY = Duration.ofMinutes(5);
+
 	@Override
+	@Transactional
 	public String forgotPassword(ForgotPasswordRequest request) {
 
 		// new code
@@ -275,7 +313,7 @@ public class UserServiceImpl implements UserService {
 	        String hashedOtp = passwordEncoder.encode(otp);
 
 	        // ✅ Set expiry time
-	        Instant expiry = Instant.now().plus(5, ChronoUnit.MINUTES);
+	        Instant expiry = Instant.now().plus(OTP_VALIDITY);
 	    
 	        // ✅ Create or update token record
 	        PasswordResetToken token = tokenRepository.findByEmail(email)
@@ -287,16 +325,9 @@ public class UserServiceImpl implements UserService {
 	        token.setUsed(false);
 
 	        tokenRepository.save(token);
-		    // Send OTP via email
-		    SimpleMailMessage message = new SimpleMailMessage();
-		    message.setTo(email);
-		    message.setSubject("BookVerse - Password Reset OTP");
-		    message.setText("Your OTP is: " + otp + "\nThis OTP is valid for 5 minutes.");
-		    try {
-	            mailSender.send(message);
-	        } catch (MailException e) {
-	            throw new RuntimeException("Failed to send OTP. Please try again later.", e);
-	        }
+		    // Send OTP via email: queued with the token, delivered (and retried) in the background
+		    mailOutbox.enqueue(email, "BookVerse - Password Reset OTP",
+		            "Your OTP is: " + otp + "\nThis OTP is valid for 5 minutes.", OTP_VALIDITY);
 
 		    return "OTP sent successfully to " + email;
 	}
@@ -333,21 +364,17 @@ public class UserServiceImpl implements UserService {
 		    // Encode and set new password
 		    user.setPassword(passwordEncoder.encode(request.getNewPassword()));
 		    userRepository.save(user);
+		    principalCache.invalidate(user.getEmail());
 
 		    return "Password has been reset successfully";
 	}
 	
 	
-	@Value("${file.upload-dir}")
-	private String uploadDir;
-
 	// ✅ Max size = 2 MB (you can change)
 	private static final long MAX_FILE_SIZE = 2 * 1024 * 1024;
 
-	// ✅ Allowed content types
-	private static final List<String> ALLOWED_TYPES = List.of("image/jpeg", "image/png");
-
 	@Override
+	@Transactional
 	public String uploadProfilePicture(MultipartFile file, String email) throws IOException {
 	    // ================== ✅ VALIDATIONS ==================
 
@@ -359,26 +386,23 @@ public class UserServiceImpl implements UserService {
 	        throw new RuntimeException("File size exceeds 2MB limit");
 	    }
 
-	    if (!ALLOWED_TYPES.contains(file.getContentType())) {
-	        throw new RuntimeException("Only JPG and PNG files are allowed");
+	    // Checked by magic bytes: the client-supplied content type is not trusted
+	    ImageFormat format;
+	    try (InputStream in = file.getInputStream()) {
+	        format = ImageFormat.detect(in);
 	    }
-
-	    // ================== ✅ SAVE FILE ==================
-	    Path uploadPath = Paths.get(uploadDir);
-	    if (!Files.exists(uploadPath)) {
-	        Files.createDirectories(uploadPath);
+	    if (format == null) {
+	        throw new RuntimeException("Only JPG and PNG files are allowed");
 	    }
 
-	    String fileName = email + "_profile_" + System.currentTimeMillis() + "_" + file.getOriginalFilename();
-	    Path filePath = uploadPath.resolve(fileName);
-
-	    Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-	    String fileUrl = "/uploads/" + fileName;
-
-	    // ✅ Update user profile picture URL in DB
 	    User user = userRepository.findByEmail(email)
 	            .orElseThrow(() -> new RuntimeException("User not found"));
+
+	    // ================== ✅ SAVE FILE ==================
+	    // Content-addressed: the same picture uploaded again is not written a second time
+	    String fileUrl = blobStore.store(file, format.extension());
+	    blobStore.release(user.getProfilePictureUrl());
+
 	    user.setProfilePictureUrl(fileUrl);
 	    userRepository.save(user);
 
@@ -402,16 +426,7 @@ public class UserServiceImpl implements UserService {
         }
 
         return users.stream()
-                .map(user -> {
-                    UserResponseDto dto = modelMapper.map(user, UserResponseDto.class);
-                    // Convert roles set to a single role string
-                    dto.setRole(user.getRoles().stream()
-                            .findFirst()
-                            .map(r -> r.getName())
-                            .orElse("USER"));
-                    dto.setStatus(user.isActive() ? "ACTIVE" : "INACTIVE");
-                    return dto;
-                })
+                .map(userMapper::toDto)
                 .collect(Collectors.toList());
 	}
 	
@@ -423,11 +438,10 @@ public class UserServiceImpl implements UserService {
 
         user.setActive(isActive);
         userRepository.save(user);
+        // Drop the cached principal so the next request reloads the user
+        principalCache.invalidate(user.getEmail());
 
-        UserStatusResponse response = modelMapper.map(user, UserStatusResponse.class);
-        response.setStatus(user.isActive() ? "UNBLOCK" : "BLOCKED");
-
-        return response;
+        return userMapper.toStatusResponse(user);
     }
 
     	
@@ -0,0 +1,267 @@
+package com.bookverser.BookVerse.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.bookverser.BookVerse.entity.StoredBlob;
+import com.bookverser.BookVerse.repository.StoredBlobRepository;
+
+/**
+ * Content-addressed store for uploaded files, shared by profile pictures and book covers.
+ *
+ * A file lives at {@code <file.upload-dir>/blobs/ab/cd/<sha256>.<ext>} and is served from
+ * the matching {@code /uploads/blobs/...} URL, which never changes content. Storing bytes
+ * that are already present only bumps the reference count: nothing is written. Callers
+ * hold references through the URLs they keep and give them back with {@link #release};
+ * blobs nobody references for {@code bookverse.blobs.gc-grace-hours} are deleted by
+ * {@link #collectGarbage}.
+ *
+ * The reference is taken before the file is checked, so the collector (which deletes the
+ * row, then the file, under the row lock) cannot remove a file a new upload relies on.
+ */
+@Component
+public class BlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStore.class);
+
+    public static final String URL_PREFIX = "/uploads/blobs/";
+
+    private static final Pattern BLOB_URL =
+            Pattern.compile("^" + Pattern.quote(URL_PREFIX) + "[0-9a-f]{2}/[0-9a-f]{2}/([0-9a-f]{64})\\.([a-z0-9]{1,10})$");
+    private static final Pattern BLOB_FILE = Pattern.compile("^([0-9a-f]{64})\\.[a-z0-9]{1,10}$");
+    private static final int GC_BATCH_SIZE = 500;
+
+    @FunctionalInterface
+    private interface FileWriter {
+        void writeTo(Path target) throws IOException;
+    }
+
+    private final StoredBlobRepository blobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path blobRoot;
+    private final Path tempDir;
+    private final Duration gcGrace;
+
+    public BlobStore(StoredBlobRepository blobRepository,
+                     PlatformTransactionManager transactionManager,
+                     @Value("${file.upload-dir:uploads}") String uploadDir,
+                     @Value("${bookverse.blobs.gc-grace-hours:24}") long gcGraceHours) {
+        this.blobRepository = blobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.blobRoot = Paths.get(uploadDir).toAbsolutePath().resolve("blobs");
+        this.tempDir = blobRoot.resolve(".tmp");
+        this.gcGrace = Duration.ofHours(Math.max(0, gcGraceHours));
+    }
+
+    /** Stores an upload and takes one reference to it; returns its URL. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String store(MultipartFile file, String extension) throws IOException {
+        String hash;
+        try (InputStream in = file.getInputStream()) {
+            hash = sha256(in);
+        }
+        return store(hash, extension, file.getSize(), file::transferTo);
+    }
+
+    /** Stores generated bytes and takes one reference to them; returns their URL. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String store(byte[] bytes, String extension) throws IOException {
+        return store(sha256(bytes), extension, bytes.length, target -> Files.write(target, bytes));
+    }
+
+    /** Copies a local file into the store and takes one reference to it; returns its URL. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String store(Path source, String extension) throws IOException {
+        String hash;
+        try (InputStream in = Files.newInputStream(source)) {
+            hash = sha256(in);
+        }
+        return store(hash, extension, Files.size(source),
+                target -> Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING));
+    }
+
+    /** Takes another reference to a stored blob; false if the URL is not one of ours. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean retain(String url) {
+        Matcher m = url != null ? BLOB_URL.matcher(url) : null;
+        return m != null && m.matches() && blobRepository.retain(m.group(1)) == 1;
+    }
+
+    /** Gives back a reference taken by store or retain; other URLs are ignored. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String url) {
+        Matcher m = url != null ? BLOB_URL.matcher(url) : null;
+        if (m != null && m.matches()) {
+            blobRepository.release(m.group(1), LocalDateTime.now());
+        }
+    }
+
+    /** The file behind a blob URL, or null if the URL is not one of ours. */
+    public Path resolve(String url) {
+        Matcher m = url != null ? BLOB_URL.matcher(url) : null;
+        return m != null && m.matches() ? pathOf(m.group(1), m.group(2)) : null;
+    }
+
+    public static boolean isBlobUrl(String url) {
+        return url != null && BLOB_URL.matcher(url).matches();
+    }
+
+    /**
+     * Deletes blobs that have been unreferenced for longer than the grace period, then
+     * files left behind by rolled-back uploads. Returns the number of files removed.
+     */
+    @Scheduled(cron = "${bookverse.blobs.gc-cron:0 30 3 * * *}")
+    public int collectGarbage() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(gcGrace);
+        int removed = 0;
+        while (true) {
+            List<StoredBlob> orphans = blobRepository.findOrphans(cutoff, PageRequest.of(0, GC_BATCH_SIZE));
+            int removedInBatch = 0;
+            for (StoredBlob blob : orphans) {
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> deleteOrphan(blob, cutoff)))) {
+                        removedInBatch++;
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Could not collect blob {}", blob.getHash(), e);
+                }
+            }
+            removed += removedInBatch;
+            if (orphans.size() < GC_BATCH_SIZE || removedInBatch == 0) {
+                break;
+            }
+        }
+        removed += sweepStrayFiles(cutoff);
+        if (removed > 0) {
+            logger.info("Blob garbage collection removed {} files", removed);
+        }
+        return removed;
+    }
+
+    // ----------------- Private Helpers -----------------
+
+    private String store(String hash, String extension, long size, FileWriter writer) throws IOException {
+        String ext = extension.toLowerCase(Locale.ROOT);
+        blobRepository.insertIfAbsent(hash, ext, size, LocalDateTime.now());
+        blobRepository.retain(hash);
+
+        Path target = pathOf(hash, ext);
+        if (!touch(target)) {
+            Files.createDirectories(tempDir);
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(tempDir, hash, ".tmp");
+            try {
+                writer.writeTo(temp);
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        return URL_PREFIX + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + "." + ext;
+    }
+
+    // Refreshes the mtime of an existing blob so the stray-file sweep leaves it alone
+    private static boolean touch(Path file) throws IOException {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private boolean deleteOrphan(StoredBlob blob, LocalDateTime cutoff) {
+        if (blobRepository.deleteIfOrphaned(blob.getHash(), cutoff) != 1) {
+            return false;   // referenced again since it was listed
+        }
+        try {
+            Files.deleteIfExists(pathOf(blob.getHash(), blob.getExtension()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not delete blob file " + blob.getHash(), e);
+        }
+        return true;
+    }
+
+    private int sweepStrayFiles(LocalDateTime cutoff) {
+        if (!Files.isDirectory(blobRoot)) {
+            return 0;
+        }
+        Instant before = cutoff.atZone(ZoneId.systemDefault()).toInstant();
+        int removed = 0;
+        try (Stream<Path> files = Files.walk(blobRoot)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (Files.getLastModifiedTime(file).toInstant().isAfter(before)) {
+                    continue;
+                }
+                Matcher m = BLOB_FILE.matcher(file.getFileName().toString());
+                boolean stray = file.startsWith(tempDir) || (m.matches() && !blobRepository.existsById(m.group(1)));
+                if (stray && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Sweeping stray blob files failed", e);
+        }
+        return removed;
+    }
+
+    private Path pathOf(String hash, String extension) {
+        return blobRoot.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + "." + extension);
+    }
+
+    private static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        for (int n; (n = in.read(buffer)) > 0; ) {
+            digest.update(buffer, 0, n);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(newDigest().digest(bytes));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
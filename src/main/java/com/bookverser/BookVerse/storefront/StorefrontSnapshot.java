@@ -0,0 +1,173 @@
+package com.bookverser.BookVerse.storefront;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.bookverser.BookVerse.dto.BookDto;
+import com.bookverser.BookVerse.entity.Book;
+import com.bookverser.BookVerse.mapper.BookMapper;
+import com.bookverser.BookVerse.repository.BookRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Immutable, pre-serialized home page lists: featured books and the newest arrivals.
+ *
+ * Reads return the current snapshot's bytes without touching the database. Writes that
+ * touch a listed book (or could enter a list) request a rebuild after their transaction
+ * commits; rebuilds run on a single background thread, coalesce bursts of changes, and
+ * publish the new snapshot with one volatile write.
+ */
+@Component
+public class StorefrontSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorefrontSnapshot.class);
+
+    private record Snapshot(List<BookDto> featured, byte[] featuredJson,
+                            List<BookDto> newArrivals, byte[] newArrivalsJson,
+                            Set<Long> bookIds, LocalDateTime oldestArrival, boolean arrivalsFull) {
+    }
+
+    private static final byte[] EMPTY_JSON = "[]".getBytes();
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final ObjectMapper objectMapper;
+    private final int featuredLimit;
+    private final int newArrivalsSize;
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "storefront-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile Snapshot current = new Snapshot(List.of(), EMPTY_JSON, List.of(), EMPTY_JSON, Set.of(), null, false);
+
+    public StorefrontSnapshot(BookRepository bookRepository,
+                              BookMapper bookMapper,
+                              ObjectMapper objectMapper,
+                              @Value("${bookverse.storefront.featured-limit:100}") int featuredLimit,
+                              @Value("${bookverse.storefront.new-arrivals-size:20}") int newArrivalsSize) {
+        this.bookRepository = bookRepository;
+        this.bookMapper = bookMapper;
+        this.objectMapper = objectMapper;
+        this.featuredLimit = Math.max(1, featuredLimit);
+        this.newArrivalsSize = Math.max(1, newArrivalsSize);
+    }
+
+    public byte[] featuredJson() {
+        return current.featuredJson();
+    }
+
+    public byte[] newArrivalsJson() {
+        return current.newArrivalsJson();
+    }
+
+    public List<BookDto> featured() {
+        return current.featured();
+    }
+
+    /** Call after a book was created, updated, (un)featured or deleted, or its stock or ratings changed. */
+    public void bookChanged(Book book) {
+        if (affects(book)) {
+            rebuildAfterCommit();
+        }
+    }
+
+    /** Call after books were created in bulk (they are all candidate new arrivals). */
+    public void booksAdded() {
+        rebuildAfterCommit();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<BookDto> featured = bookRepository.findFeatured(PageRequest.of(0, featuredLimit)).stream()
+                .map(bookMapper::toDto).toList();
+        List<Book> arrivals = bookRepository.findLatest(PageRequest.of(0, newArrivalsSize));
+        List<BookDto> newArrivals = arrivals.stream().map(bookMapper::toDto).toList();
+
+        Set<Long> ids = new HashSet<>();
+        featured.forEach(b -> ids.add(b.getId()));
+        newArrivals.forEach(b -> ids.add(b.getId()));
+        LocalDateTime oldestArrival = arrivals.isEmpty() ? null : arrivals.get(arrivals.size() - 1).getCreatedAt();
+
+        current = new Snapshot(featured, serialize(featured), newArrivals, serialize(newArrivals),
+                Set.copyOf(ids), oldestArrival, arrivals.size() == newArrivalsSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    // ----------------- Private Helpers -----------------
+
+    private boolean affects(Book book) {
+        Snapshot snapshot = current;
+        if (snapshot.bookIds().contains(book.getId())) {
+            return true;   // listed book changed or was removed
+        }
+        if (!book.isActive()) {
+            return false;
+        }
+        if (book.isFeatured()) {
+            return true;
+        }
+        return !snapshot.arrivalsFull() || book.getCreatedAt() == null
+                || !book.getCreatedAt().isBefore(snapshot.oldestArrival());
+    }
+
+    private void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRebuild();
+                }
+            });
+        } else {
+            scheduleRebuild();
+        }
+    }
+
+    // At most one rebuild queued: changes arriving before it starts are picked up by it
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.error("Storefront snapshot rebuild failed; keeping the previous one", e);
+                }
+            });
+        }
+    }
+
+    private byte[] serialize(List<BookDto> books) {
+        try {
+            return objectMapper.writeValueAsBytes(books);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize storefront snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.bookverser.BookVerse.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sends a file as the response body without copying it through the JVM heap.
+ *
+ * On Tomcat with sendfile enabled the file is handed to the connector, which writes it
+ * with {@code sendfile(2)} once the request returns. Elsewhere, and for requests in async
+ * mode (Tomcat skips sendfile for those), the bytes go through {@link FileChannel#transferTo};
+ * {@link #transfer} does the same for a body streamed from an async handler. Headers must be
+ * set by the caller beforehand.
+ */
+public final class FileTransfer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileTransfer() {
+    }
+
+    /** Sends bytes {@code [start, end)} of {@code file}. */
+    public static void send(HttpServletRequest request, HttpServletResponse response,
+                            Path file, long start, long end) throws IOException {
+        response.setContentLengthLong(end - start);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)) && !request.isAsyncStarted()) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        transfer(file, start, end, response.getOutputStream());
+        response.flushBuffer();
+    }
+
+    /** Writes bytes {@code [start, end)} of {@code file} to {@code out}. */
+    public static void transfer(Path file, long start, long end, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, target);
+                if (sent <= 0) {
+                    throw new IOException("File ended early: " + file);
+                }
+                position += sent;
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.bookverser.BookVerse.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriUtils;
+
+import com.bookverser.BookVerse.storage.BlobStore;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves {@code /uploads/**} straight from {@code file.upload-dir}.
+ *
+ * Registered ahead of Spring Security and the JWT filter and never passes the request on,
+ * so avatars and covers cost no token parsing, user lookup or MVC dispatch. Bodies go out
+ * through {@link FileTransfer} (sendfile where the connector supports it). Blob URLs never
+ * change content and are cached for a year; older uploads are revalidated against their
+ * ETag. A single byte range is honoured; multi-range requests get the whole file.
+ */
+public class UploadsFilter extends OncePerRequestFilter {
+
+    public static final String URL_PREFIX = "/uploads/";
+
+    private static final String ALLOWED_METHODS = "GET, HEAD";
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+    private static final String REVALIDATE = CacheControl.noCache().getHeaderValue();
+
+    private record ByteRange(long start, long end) {
+        static final ByteRange NOT_SATISFIABLE = new ByteRange(-1, -1);
+    }
+
+    private final Path root;
+
+    public UploadsFilter(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws IOException {
+        boolean head = "HEAD".equals(request.getMethod());
+        if (!head && !"GET".equals(request.getMethod())) {
+            response.setHeader(HttpHeaders.ALLOW, ALLOWED_METHODS);
+            response.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        String url = UriUtils.decode(request.getRequestURI().substring(request.getContextPath().length()),
+                StandardCharsets.UTF_8);
+        Path file = resolve(url);
+        BasicFileAttributes attributes = file != null ? readAttributes(file) : null;
+        if (attributes == null || !attributes.isRegularFile()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        boolean immutable = BlobStore.isBlobUrl(url);
+        String etag = immutable
+                ? "\"" + baseName(file) + "\""
+                : "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? IMMUTABLE : REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Sets ETag and Last-Modified, and answers If-None-Match / If-Modified-Since with 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        ByteRange range = ifRangeMatches(request, etag, lastModified)
+                ? parseRange(request.getHeader(HttpHeaders.RANGE), length)
+                : null;
+        if (range == ByteRange.NOT_SATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        response.setContentType(contentType(request, file));
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        long start = 0;
+        long end = length;
+        if (range != null) {
+            start = range.start();
+            end = range.end();
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+
+        if (head) {
+            response.setContentLengthLong(end - start);
+            return;
+        }
+        FileTransfer.send(request, response, file, start, end);
+    }
+
+    // ----------------- Private Helpers -----------------
+
+    // Null for anything outside the upload dir or under a dot-directory (e.g. blobs/.tmp)
+    private Path resolve(String url) {
+        if (!url.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        String relative = url.substring(URL_PREFIX.length());
+        for (String segment : relative.split("/")) {
+            if (segment.isEmpty() || segment.startsWith(".")) {
+                return null;
+            }
+        }
+        Path file = root.resolve(relative).normalize();
+        return file.startsWith(root) ? file : null;
+    }
+
+    private static BasicFileAttributes readAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    // Only image types are served as such; anything else an old upload left behind is a plain download
+    private static String contentType(HttpServletRequest request, Path file) {
+        String type = request.getServletContext().getMimeType(file.getFileName().toString());
+        return type != null && type.startsWith("image/") ? type : "application/octet-stream";
+    }
+
+    // A Range is only honoured if If-Range (when sent) still names the current file
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        if (ifRange.startsWith("W/")) {
+            return false;   // weak validators never match If-Range
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /** Parses a single {@code bytes=} range into {@code [start, end)}; null means send the whole file. */
+    private static ByteRange parseRange(String header, long length) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return ByteRange.NOT_SATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffix), length);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length : Math.min(length, Long.parseLong(last) + 1);
+            if (start < 0 || end <= start) {
+                return start >= length ? ByteRange.NOT_SATISFIABLE : null;
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
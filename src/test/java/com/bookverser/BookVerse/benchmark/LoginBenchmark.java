@@ -0,0 +1,109 @@
+package com.bookverser.BookVerse.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.bookverser.BookVerse.security.CustomUserDetails;
+import com.bookverser.BookVerse.security.JwtUtil;
+import com.bookverser.BookVerse.security.PasswordVerifier;
+
+/**
+ * Login throughput (password check plus token issue) per BCrypt cost factor, with 8
+ * concurrent callers. {@code callerThread} is the old shape, hashing on the request
+ * thread, so it uses up to 8 cores; {@code hashPool} goes through {@link PasswordVerifier}
+ * with {@code hashThreads} threads and is capped at roughly hashThreads / min(8, cores) of
+ * that, which is the point: the remaining cores stay free for other requests. The cap
+ * only shows on a host with more cores than {@code hashThreads}; on one core all
+ * variants hash on the same CPU and come out equal. {@code callerThread} ignores
+ * {@code hashThreads}.
+ *
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bookverser.BookVerse.benchmark.LoginBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({ "8", "10", "12" })
+    private int strength;
+
+    // The production default is half the cores (bookverse.auth.hash-threads=0)
+    @Param({ "2", "4", "8" })
+    private int hashThreads;
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordVerifier verifier;
+    private JwtUtil jwtUtil;
+    private CustomUserDetails principal;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        verifier = new PasswordVerifier(encoder, hashThreads, 64);
+        jwtUtil = new JwtUtil();
+        principal = new CustomUserDetails(1L, "reader@bookverse.test", encoder.encode(PASSWORD),
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+    }
+
+    @TearDown
+    public void tearDown() {
+        verifier.shutdown();
+    }
+
+    @Benchmark
+    public String callerThread() {
+        if (!encoder.matches(PASSWORD, principal.getPassword())) {
+            throw new IllegalStateException("password should match");
+        }
+        return issueTokens();
+    }
+
+    @Benchmark
+    public String hashPool() {
+        return verifier.matches(PASSWORD, principal.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        throw new IllegalStateException("password should match");
+                    }
+                    return issueTokens();
+                })
+                .join();
+    }
+
+    private String issueTokens() {
+        return jwtUtil.generateAccessToken(principal) + jwtUtil.generateRefreshToken(principal);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,191 @@
+package com.bookverser.BookVerse.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.bookverser.BookVerse.config.ModelMapperConfig;
+import com.bookverser.BookVerse.dto.AddressResponseDto;
+import com.bookverser.BookVerse.dto.BookDto;
+import com.bookverser.BookVerse.dto.CartItemDto;
+import com.bookverser.BookVerse.dto.OrderDTO;
+import com.bookverser.BookVerse.dto.UserResponseDto;
+import com.bookverser.BookVerse.entity.Address;
+import com.bookverser.BookVerse.entity.Book;
+import com.bookverser.BookVerse.entity.CartItem;
+import com.bookverser.BookVerse.entity.Category;
+import com.bookverser.BookVerse.entity.Order;
+import com.bookverser.BookVerse.entity.OrderItem;
+import com.bookverser.BookVerse.entity.Role;
+import com.bookverser.BookVerse.entity.User;
+import com.bookverser.BookVerse.mapper.AddressMapper;
+import com.bookverser.BookVerse.mapper.AddressMapperImpl;
+import com.bookverser.BookVerse.mapper.BookMapper;
+import com.bookverser.BookVerse.mapper.BookMapperImpl;
+import com.bookverser.BookVerse.mapper.CartItemMapper;
+import com.bookverser.BookVerse.mapper.CartItemMapperImpl;
+import com.bookverser.BookVerse.mapper.OrderMapper;
+import com.bookverser.BookVerse.mapper.OrderMapperImpl;
+import com.bookverser.BookVerse.mapper.UserMapper;
+import com.bookverser.BookVerse.mapper.UserMapperImpl;
+
+/**
+ * Compares the generated mappers with the {@link ModelMapperConfig} bean on the
+ * entity → DTO conversions used by the listing endpoints.
+ *
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.bookverser.BookVerse.benchmark.MapperBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private ModelMapper modelMapper;
+    private BookMapper bookMapper;
+    private AddressMapper addressMapper;
+    private UserMapper userMapper;
+    private CartItemMapper cartItemMapper;
+    private OrderMapper orderMapper;
+
+    private Book book;
+    private Address address;
+    private User user;
+    private CartItem cartItem;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        addressMapper = new AddressMapperImpl();
+        bookMapper = new BookMapperImpl();
+        userMapper = new UserMapperImpl(addressMapper);
+        cartItemMapper = new CartItemMapperImpl();
+        orderMapper = new OrderMapperImpl(addressMapper, cartItemMapper);
+
+        Role role = new Role();
+        role.setId(2L);
+        role.setName("SELLER");
+
+        user = new User();
+        user.setId(7L);
+        user.setName("Asha Rao");
+        user.setEmail("asha@example.com");
+        user.setPhone("9876543210");
+        user.setRoles(Set.of(role));
+        user.setCreatedAt(LocalDateTime.now());
+
+        address = Address.builder().id(3L).city("Pune").state("MH").country("India").user(user).build();
+        user.getAddresses().add(address);
+
+        Category category = new Category();
+        category.setId(4L);
+        category.setName("Fiction");
+
+        book = new Book();
+        book.setId(11L);
+        book.setIsbn("9780000000011");
+        book.setTitle("The Long Road");
+        book.setAuthor("R. Menon");
+        book.setPrice(new BigDecimal("499.00"));
+        book.setDescription("A novel.");
+        book.setStock(25);
+        book.setCondition("NEW");
+        book.setCategory(category);
+        book.setSeller(user);
+        book.setCreatedAt(LocalDateTime.now());
+
+        cartItem = new CartItem();
+        cartItem.setId(21L);
+        cartItem.setBook(book);
+        cartItem.setQuantity(2);
+
+        order = Order.builder()
+                .id(31L)
+                .customer(user)
+                .shippingAddress(address)
+                .totalPrice(new BigDecimal("998.00"))
+                .status(Order.Status.PENDING)
+                .paymentStatus(Order.PaymentStatus.PAID)
+                .createdAt(LocalDateTime.now())
+                .build();
+        order.getOrderItems().add(OrderItem.builder()
+                .id(41L).order(order).book(book).seller(user).quantity(2).unitPrice(book.getPrice()).build());
+    }
+
+    @Benchmark
+    public BookDto bookModelMapper() {
+        return modelMapper.map(book, BookDto.class);
+    }
+
+    @Benchmark
+    public BookDto bookGenerated() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public AddressResponseDto addressModelMapper() {
+        return modelMapper.map(address, AddressResponseDto.class);
+    }
+
+    @Benchmark
+    public AddressResponseDto addressGenerated() {
+        return addressMapper.toDto(address);
+    }
+
+    @Benchmark
+    public UserResponseDto userModelMapper() {
+        return modelMapper.map(user, UserResponseDto.class);
+    }
+
+    @Benchmark
+    public UserResponseDto userGenerated() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public CartItemDto cartItemModelMapper() {
+        return modelMapper.map(cartItem, CartItemDto.class);
+    }
+
+    @Benchmark
+    public CartItemDto cartItemGenerated() {
+        return cartItemMapper.toDto(cartItem);
+    }
+
+    @Benchmark
+    public OrderDTO orderModelMapper() {
+        return modelMapper.map(order, OrderDTO.class);
+    }
+
+    @Benchmark
+    public OrderDTO orderGenerated() {
+        return orderMapper.toDto(order);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
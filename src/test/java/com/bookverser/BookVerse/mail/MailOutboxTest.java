@@ -0,0 +1,242 @@
+package com.bookverser.BookVerse.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.bookverser.BookVerse.entity.OutboundMail;
+import com.bookverser.BookVerse.repository.OutboundMailRepository;
+
+/**
+ * Drives MailOutbox rounds against a minimal local SMTP server, checking which outcome
+ * (sent, retried, failed) each mail is recorded with. The repository is mocked, so no
+ * database or dispatcher thread is involved.
+ */
+class MailOutboxTest {
+
+    private static final String REJECTED = "nobody@bookverse.test";
+    private static final Duration BACKOFF_BASE = Duration.ofSeconds(30);
+
+    private SmtpStub smtp;
+    private OutboundMailRepository repository;
+    private MailOutbox outbox;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new SmtpStub();
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(smtp.port());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "5000");
+        properties.put("mail.smtp.timeout", "5000");
+        sender.setJavaMailProperties(properties);
+
+        repository = mock(OutboundMailRepository.class);
+        when(repository.claim(anyLong(), anyInt(), any())).thenReturn(1);
+        outbox = new MailOutbox(repository, sender, "noreply@bookverse.test",
+                20, 1, 3, BACKOFF_BASE.toSeconds(), 3600, 5000, 300, 7);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        outbox.shutdown();
+        smtp.close();
+    }
+
+    @Test
+    void acceptedMailIsMarkedSent() throws Exception {
+        OutboundMail mail = pending(1L, "reader@bookverse.test", null);
+        dispatch(mail);
+
+        verify(repository).markSent(eq(List.of(1L)), any());
+        verify(repository, never()).retryAt(anyLong(), any(), any());
+        assertEquals(1, smtp.delivered.size());
+        assertTrue(smtp.delivered.get(0).contains("Subject: Mail 1"));
+        assertEquals(1, outbox.stats().getSentSinceStartup());
+    }
+
+    @Test
+    void temporaryFailureIsRetriedThenSent() throws Exception {
+        OutboundMail mail = pending(2L, "reader@bookverse.test", null);
+        smtp.temporaryFailures.set(1);
+        LocalDateTime before = LocalDateTime.now();
+        dispatch(mail);
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).retryAt(eq(2L), nextAttempt.capture(), anyString());
+        verify(repository, never()).markSent(any(), any());
+        // First retry after the base delay, give or take the 20% jitter
+        assertTrue(nextAttempt.getValue().isAfter(before.plus(BACKOFF_BASE.multipliedBy(8).dividedBy(10))));
+
+        dispatch(mail);   // the same row, due again
+
+        verify(repository).markSent(eq(List.of(2L)), any());
+        verify(repository, never()).markFailed(anyLong(), any());
+        assertEquals(2, mail.getAttempts());
+        assertEquals(1, outbox.stats().getRetriesSinceStartup());
+    }
+
+    @Test
+    void rejectedRecipientFailsWithoutRetry() throws Exception {
+        OutboundMail rejected = pending(3L, REJECTED, null);
+        OutboundMail accepted = pending(4L, "reader@bookverse.test", null);
+        dispatch(rejected, accepted);
+
+        verify(repository).markFailed(eq(3L), anyString());
+        verify(repository, never()).retryAt(anyLong(), any(), any());
+        verify(repository).markSent(eq(List.of(4L)), any());
+        assertEquals(1, rejected.getAttempts());
+    }
+
+    @Test
+    void expiredMailIsNotSent() throws Exception {
+        OutboundMail mail = pending(5L, "reader@bookverse.test", LocalDateTime.now().minusSeconds(1));
+        dispatch(mail);
+
+        verify(repository).markFailed(eq(5L), anyString());
+        verify(repository, never()).markSent(any(), any());
+        assertEquals(0, smtp.delivered.size());
+        assertEquals(1, outbox.stats().getExpiredSinceStartup());
+    }
+
+    @Test
+    void retryPastExpiryFailsInstead() throws Exception {
+        // Valid for less than the first backoff delay
+        OutboundMail mail = pending(6L, "reader@bookverse.test", LocalDateTime.now().plusSeconds(10));
+        smtp.temporaryFailures.set(1);
+        dispatch(mail);
+
+        verify(repository).markFailed(eq(6L), anyString());
+        verify(repository, never()).retryAt(anyLong(), any(), any());
+    }
+
+    // ----------------- Helpers -----------------
+
+    private void dispatch(OutboundMail... mails) throws InterruptedException {
+        when(repository.findDue(any(), any(Pageable.class))).thenReturn(List.of(mails));
+        outbox.dispatchDue();
+    }
+
+    private static OutboundMail pending(Long id, String recipient, LocalDateTime expiresAt) {
+        OutboundMail mail = new OutboundMail();
+        mail.setId(id);
+        mail.setRecipient(recipient);
+        mail.setSubject("Mail " + id);
+        mail.setBody("Body of mail " + id);
+        mail.setStatus(OutboundMail.Status.PENDING);
+        mail.setNextAttemptAt(LocalDateTime.now());
+        mail.setExpiresAt(expiresAt);
+        mail.setCreatedAt(LocalDateTime.now());
+        return mail;
+    }
+
+    /**
+     * Just enough SMTP for JavaMail: rejects {@link #REJECTED} with 550 and answers the next
+     * {@code temporaryFailures} recipients with 451; everything else is accepted.
+     */
+    private static final class SmtpStub implements AutoCloseable {
+
+        final List<String> delivered = new CopyOnWriteArrayList<>();
+        final AtomicInteger temporaryFailures = new AtomicInteger();
+        private final ServerSocket server;
+
+        SmtpStub() throws IOException {
+            server = new ServerSocket(0);
+            Thread.ofPlatform().name("smtp-stub").daemon().start(this::acceptLoop);
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+
+        private void acceptLoop() {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    converse(socket);
+                } catch (SocketException e) {
+                    return;   // closed
+                } catch (IOException e) {
+                    // client went away mid-conversation; wait for the next one
+                }
+            }
+        }
+
+        private void converse(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = socket.getOutputStream();
+            reply(out, "220 localhost stub");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO", "MAIL", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "RCPT" -> {
+                        if (line.contains(REJECTED)) {
+                            reply(out, "550 No such user");
+                        } else if (temporaryFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                            reply(out, "451 Try again later");
+                        } else {
+                            reply(out, "250 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End with <CRLF>.<CRLF>");
+                        StringBuilder message = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            message.append(line).append('\n');
+                        }
+                        delivered.add(message.toString());
+                        reply(out, "250 Queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Not implemented");
+                }
+            }
+        }
+
+        private static void reply(OutputStream out, String line) throws IOException {
+            out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+}
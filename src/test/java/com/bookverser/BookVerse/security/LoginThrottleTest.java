@@ -0,0 +1,126 @@
+package com.bookverser.BookVerse.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.bookverser.BookVerse.exception.TooManyAttemptsException;
+
+/**
+ * Drives LoginThrottle with explicit timestamps: the limits, how the previous window fades
+ * out after a rollover, the Retry-After it reports, and which keys it drops when full.
+ */
+class LoginThrottleTest {
+
+    private static final long WINDOW = 100_000;
+    private static final long T0 = 10 * WINDOW;      // start of a window
+    private static final int PER_EMAIL = 3;
+    private static final int PER_IP = 5;
+    private static final int MAX_KEYS = 32;          // two per stripe
+    private static final String IP = "203.0.113.7";
+
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginThrottle(WINDOW / 1000, PER_EMAIL, PER_IP, 2, 2, MAX_KEYS);
+    }
+
+    @Test
+    void emailIsRejectedOverItsLimitUntilTheWindowRollsOver() {
+        for (int i = 0; i < PER_EMAIL; i++) {
+            attempt("reader@bookverse.test", T0 + 10_000);
+        }
+        TooManyAttemptsException rejected = assertThrows(TooManyAttemptsException.class,
+                () -> attempt("Reader@BookVerse.test ", T0 + 10_000));
+        // All three attempts carry full weight at the rollover; the first one has faded 1 ms later
+        assertEquals(91, rejected.getRetryAfterSeconds());
+
+        assertThrows(TooManyAttemptsException.class, () -> attempt("reader@bookverse.test", T0 + WINDOW));
+        attempt("reader@bookverse.test", T0 + WINDOW + 1);
+        assertEquals(2, throttle.stats().getLoginRejectedByEmail());
+    }
+
+    @Test
+    void retryAfterWaitsForThePreviousWindowToFade() {
+        for (int i = 0; i < PER_EMAIL; i++) {
+            attempt("reader@bookverse.test", T0);
+        }
+        long half = T0 + WINDOW + WINDOW / 2;
+        attempt("reader@bookverse.test", half);       // 1.5 + 0 < 3
+        attempt("reader@bookverse.test", half);       // 1.5 + 1 < 3
+        TooManyAttemptsException rejected = assertThrows(TooManyAttemptsException.class,
+                () -> attempt("reader@bookverse.test", half));
+
+        // 3 * (1 - t) + 2 < 3 once t > 2/3 of the window: 66 668 ms in, 16 668 ms from now
+        assertEquals(17, rejected.getRetryAfterSeconds());
+        assertThrows(TooManyAttemptsException.class,
+                () -> attempt("reader@bookverse.test", T0 + WINDOW + 66_666));
+        attempt("reader@bookverse.test", T0 + WINDOW + 66_668);
+    }
+
+    @Test
+    void ipIsChargedOnlyForFailures() {
+        for (int i = 0; i < 3 * PER_IP; i++) {
+            String email = "reader" + i + "@bookverse.test";
+            attempt(email, T0 + i);
+            throttle.succeeded(LoginThrottle.Scope.LOGIN, email, IP, T0 + i);
+        }
+        for (int i = 0; i < PER_IP; i++) {
+            attempt("guess" + i + "@bookverse.test", T0 + 100);
+        }
+        assertThrows(TooManyAttemptsException.class, () -> attempt("guess@bookverse.test", T0 + 100));
+        assertEquals(1, throttle.stats().getLoginRejectedByIp());
+        assertEquals(0, throttle.stats().getLoginRejectedByEmail());
+    }
+
+    @Test
+    void successForgetsTheEmailsFailures() {
+        attempt("reader@bookverse.test", T0);
+        attempt("reader@bookverse.test", T0);
+        attempt("reader@bookverse.test", T0);
+        throttle.succeeded(LoginThrottle.Scope.LOGIN, "reader@bookverse.test", IP, T0);
+
+        for (int i = 0; i < PER_EMAIL; i++) {
+            attempt("reader@bookverse.test", T0 + 1);
+        }
+        assertThrows(TooManyAttemptsException.class, () -> attempt("reader@bookverse.test", T0 + 1));
+    }
+
+    @Test
+    void scopesAreCountedSeparately() {
+        for (int i = 0; i < PER_EMAIL; i++) {
+            attempt("reader@bookverse.test", T0);
+        }
+        throttle.acquire(LoginThrottle.Scope.PASSWORD_RESET, "reader@bookverse.test", null, T0);
+        throttle.acquire(LoginThrottle.Scope.PASSWORD_RESET, "reader@bookverse.test", null, T0);
+        assertThrows(TooManyAttemptsException.class,
+                () -> throttle.acquire(LoginThrottle.Scope.PASSWORD_RESET, "reader@bookverse.test", null, T0));
+        assertEquals(1, throttle.stats().getResetRejectedByEmail());
+    }
+
+    @Test
+    void coldKeysAreDroppedAndHotOnesKept() {
+        for (int i = 0; i < PER_EMAIL; i++) {
+            attempt("hot@bookverse.test", T0);
+        }
+        for (int i = 0; i < 500; i++) {
+            throttle.acquire(LoginThrottle.Scope.LOGIN, "cold" + i + "@bookverse.test", null, T0);
+            // Touching the hot key keeps it the most recently used in its stripe
+            assertThrows(TooManyAttemptsException.class,
+                    () -> throttle.acquire(LoginThrottle.Scope.LOGIN, "hot@bookverse.test", null, T0));
+        }
+
+        assertTrue(throttle.stats().getTrackedKeys() <= MAX_KEYS);
+        assertEquals(1 + 500 + 1 - throttle.stats().getTrackedKeys(), throttle.stats().getEvictions());
+    }
+
+    // ----------------- Helpers -----------------
+
+    private void attempt(String email, long now) {
+        throttle.acquire(LoginThrottle.Scope.LOGIN, email, IP, now);
+    }
+}
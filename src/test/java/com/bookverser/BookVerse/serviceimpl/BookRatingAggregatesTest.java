@@ -0,0 +1,139 @@
+package com.bookverser.BookVerse.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bookverser.BookVerse.dto.UpdateStockRequestDTO;
+import com.bookverser.BookVerse.entity.Book;
+import com.bookverser.BookVerse.entity.Category;
+import com.bookverser.BookVerse.entity.User;
+import com.bookverser.BookVerse.repository.BookRepository;
+import com.bookverser.BookVerse.repository.CategoryRepository;
+import com.bookverser.BookVerse.repository.UserRepository;
+import com.bookverser.BookVerse.service.BookService;
+
+/**
+ * Checks that saving a Book loaded before a review landed does not roll back the
+ * rating aggregates that {@code addRating} incremented in the meantime.
+ */
+@SpringBootTest
+class BookRatingAggregatesTest {
+
+    private static final int RATINGS = 100;
+
+    @Autowired private BookService bookService;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private BookIdGenerator bookIdGenerator;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private User seller;
+    private Category category;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        seller = new User();
+        seller.setName("seller-" + suffix);
+        seller.setEmail("seller-" + suffix + "@test.bookverse");
+        seller.setPassword("not-used");
+        seller = userRepository.save(seller);
+
+        category = new Category();
+        category.setName("Ratings " + suffix);
+        category = categoryRepository.save(category);
+
+        book = new Book();
+        book.setId(bookIdGenerator.nextId());
+        book.setIsbn(String.valueOf(System.nanoTime()).substring(0, 13));
+        book.setTitle("Rated Title");
+        book.setAuthor("Load Test");
+        book.setPrice(new BigDecimal("9.99"));
+        book.setCondition("NEW");
+        book.setStock(10);
+        book.setCategory(category);
+        book.setSeller(seller);
+        book = bookRepository.save(book);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(book.getId());
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteById(seller.getId());
+    }
+
+    @Test
+    void saveOfStaleBookKeepsRatingAdded() {
+        Book stale = bookRepository.findById(book.getId()).orElseThrow();
+
+        addRating(4);
+        stale.setPrice(new BigDecimal("7.50"));
+        bookRepository.save(stale);
+
+        Book saved = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("7.50").compareTo(saved.getPrice()));
+        assertEquals(1, saved.getRatingCount());
+        assertEquals(4, saved.getRatingSum());
+        assertEquals(4.0, saved.getAverageRating(), 1e-9);
+        assertEquals(1, saved.getFourStarCount());
+    }
+
+    @Test
+    void parallelStockUpdatesNeverLoseRatings() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < RATINGS; i++) {
+            int rating = i % 5 + 1;
+            futures.add(pool.submit(() -> {
+                start.await();
+                addRating(rating);
+                return null;
+            }));
+            futures.add(pool.submit(() -> {
+                start.await();
+                UpdateStockRequestDTO request = new UpdateStockRequestDTO();
+                request.setStock(rating);
+                bookService.updateStock(book.getId(), request);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        Book saved = bookRepository.findById(book.getId()).orElseThrow();
+        assertEquals(RATINGS, saved.getRatingCount());
+        assertEquals(RATINGS * 3, saved.getRatingSum());   // ratings 1..5, evenly
+        assertEquals(RATINGS / 5, saved.getOneStarCount());
+        assertEquals(RATINGS / 5, saved.getFiveStarCount());
+    }
+
+    private void addRating(int rating) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> bookRepository.addRating(book.getId(), rating, LocalDateTime.now()));
+    }
+}
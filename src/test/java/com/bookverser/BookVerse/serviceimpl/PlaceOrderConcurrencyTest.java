@@ -0,0 +1,177 @@
+package com.bookverser.BookVerse.serviceimpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.bookverser.BookVerse.dto.PlaceOrderRequest;
+import com.bookverser.BookVerse.entity.Book;
+import com.bookverser.BookVerse.entity.Category;
+import com.bookverser.BookVerse.entity.User;
+import com.bookverser.BookVerse.exception.InsufficientStockException;
+import com.bookverser.BookVerse.repository.BookRepository;
+import com.bookverser.BookVerse.repository.CategoryRepository;
+import com.bookverser.BookVerse.repository.OrderRepository;
+import com.bookverser.BookVerse.repository.UserRepository;
+import com.bookverser.BookVerse.security.CustomUserDetails;
+import com.bookverser.BookVerse.service.OrderService;
+
+/**
+ * Fires many parallel orders at one book and checks that stock is never oversold, nor
+ * written back by a later save of a Book loaded before the order.
+ */
+@SpringBootTest
+class PlaceOrderConcurrencyTest {
+
+    private static final int STOCK = 100;
+    private static final int ORDERS = 300;
+
+    @Autowired private OrderService orderService;
+    @Autowired private BookRepository bookRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private BookIdGenerator bookIdGenerator;
+
+    private User seller;
+    private User customer;
+    private Category category;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        seller = userRepository.save(newUser("seller-" + suffix));
+        customer = userRepository.save(newUser("customer-" + suffix));
+
+        category = new Category();
+        category.setName("Concurrency " + suffix);
+        category = categoryRepository.save(category);
+
+        book = new Book();
+        book.setId(bookIdGenerator.nextId());
+        book.setIsbn(String.valueOf(System.nanoTime()).substring(0, 13));
+        book.setTitle("Flash Sale Title");
+        book.setAuthor("Load Test");
+        book.setPrice(new BigDecimal("9.99"));
+        book.setCondition("NEW");
+        book.setStock(STOCK);
+        book.setCategory(category);
+        book.setSeller(seller);
+        book = bookRepository.save(book);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAllById(
+                orderRepository.findLatestOrderIdsByCustomer(customer.getId(), PageRequest.of(0, ORDERS)));
+        bookRepository.deleteById(book.getId());
+        categoryRepository.deleteById(category.getId());
+        userRepository.deleteById(customer.getId());
+        userRepository.deleteById(seller.getId());
+    }
+
+    @Test
+    void parallelOrdersNeverOversell() throws Exception {
+        CustomUserDetails principal = customerPrincipal();
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            futures.add(pool.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+                try {
+                    start.await();
+                    orderService.placeOrder(orderForOneCopy());
+                    placed.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);   // rethrows anything other than a stock rejection
+        }
+        pool.shutdown();
+
+        assertEquals(STOCK, placed.get());
+        assertEquals(ORDERS - STOCK, rejected.get());
+        int remaining = bookRepository.findById(book.getId()).orElseThrow().getStock();
+        assertEquals(0, remaining);
+    }
+
+    @Test
+    void saveOfStaleBookKeepsReservedStock() {
+        Book stale = bookRepository.findById(book.getId()).orElseThrow();
+
+        CustomUserDetails principal = customerPrincipal();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        try {
+            orderService.placeOrder(orderForOneCopy());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        stale.setFeatured(true);
+        bookRepository.save(stale);
+
+        assertEquals(STOCK - 1, bookRepository.findById(book.getId()).orElseThrow().getStock());
+    }
+
+    private CustomUserDetails customerPrincipal() {
+        return new CustomUserDetails(customer.getId(), customer.getEmail(), null,
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+    }
+
+    private PlaceOrderRequest orderForOneCopy() {
+        PlaceOrderRequest.OrderItemRequest item = new PlaceOrderRequest.OrderItemRequest();
+        item.setBookId(book.getId());
+        item.setQuantity(1);
+
+        PlaceOrderRequest.AddressRequest address = new PlaceOrderRequest.AddressRequest();
+        address.setCity("Pune");
+        address.setState("MH");
+        address.setCountry("India");
+
+        PlaceOrderRequest request = new PlaceOrderRequest();
+        request.setPaymentMethod("COD");
+        request.setItems(List.of(item));
+        request.setShippingAddress(address);
+        return request;
+    }
+
+    private static User newUser(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@test.bookverse");
+        user.setPassword("not-used");
+        return user;
+    }
+}